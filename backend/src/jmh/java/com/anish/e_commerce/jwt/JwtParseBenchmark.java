@@ -0,0 +1,82 @@
+package com.anish.e_commerce.jwt;
+
+import com.anish.e_commerce.jwt.JwtUtil.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// What one request pays to get its claims out of the bearer token:
+//   threeParses - the old filter: username, validity and roles, each from a
+//                 freshly built parser
+//   singleParse - one verification with the shared parser
+//   cacheHit    - JwtUtil.parse for a token it has already verified
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET =
+        "aBenchmarkSecretThatIsLongEnoughForHs256!";
+
+    private Key key;
+    private JwtParser sharedParser;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyring keyring = new JwtKeyring(new JwtKeyringProperties(), SECRET);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        sharedParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(keyring.resolver())
+            .build();
+        jwtUtil = new JwtUtil(keyring, 900_000, 10_000);
+        token = jwtUtil.generateToken("benchuser", Set.of("USER", "ADMIN"), 0);
+        jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public void threeParses(Blackhole blackhole) {
+        blackhole.consume(freshParse().getSubject());
+        blackhole.consume(freshParse() != null);
+        blackhole.consume(freshParse().get("roles"));
+    }
+
+    @Benchmark
+    public TokenClaims singleParse() {
+        return TokenClaims.of(sharedParser.parseClaimsJws(token).getBody());
+    }
+
+    @Benchmark
+    public Optional<TokenClaims> cacheHit() {
+        return jwtUtil.parse(token);
+    }
+
+    private Claims freshParse() {
+        return Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+}
@@ -0,0 +1,288 @@
+package com.anish.e_commerce.repo;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// What the database sees when a 50-line order or a 10k-recipient restock is
+// written, each in one transaction:
+//   orderIdentity   - IDENTITY ids: the order, then every line, one
+//                     INSERT ... RETURNING round trip each
+//   orderBatched    - pooled sequences (allocationSize 50): one nextval per
+//                     table, then the lines as a single rewritten batch
+//   fanoutIdentity  - 10k notifications one INSERT at a time
+//   fanoutBatched   - 10k notifications as batches of 50 with pooled ids
+//   fanoutChunked   - NotificationJdbcRepo.insertRestockChunk, 1000 wishers
+//                     per INSERT ... SELECT
+// Needs DB_URL / DB_USER / DB_PASS pointing at a database it may create a
+// throwaway schema in.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertThroughputBenchmark {
+
+    private static final int ORDER_LINES = 50;
+    private static final int WISHERS = 10_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int FANOUT_CHUNK = 1_000;
+    private static final int PRODUCT_ID = 1;
+    private static final String MESSAGE =
+        "Good news! Rubber Duck is back in stock.";
+
+    // Sequences start far above anything the identity columns will reach,
+    // so both id sources can share a table
+    private static final String SCHEMA_DDL =
+        "CREATE TABLE users (id bigint PRIMARY KEY); " +
+        "CREATE TABLE product (id int PRIMARY KEY); " +
+        "CREATE TABLE orders (" +
+        "id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+        "user_id bigint NOT NULL REFERENCES users, " +
+        "total_amount numeric(38, 2), status varchar(255), " +
+        "created_at timestamp, razorpay_order_id varchar(255)); " +
+        "CREATE TABLE order_item (" +
+        "id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+        "order_id bigint NOT NULL REFERENCES orders, " +
+        "product_id int NOT NULL REFERENCES product, " +
+        "quantity int NOT NULL, price_at_purchase numeric(38, 2)); " +
+        "CREATE TABLE notifications (" +
+        "id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+        "user_id bigint NOT NULL REFERENCES users, message varchar(255), " +
+        "is_read boolean NOT NULL, created_at timestamp); " +
+        "CREATE TABLE wishlist (id bigint PRIMARY KEY, " +
+        "user_id bigint NOT NULL, product_id int NOT NULL); " +
+        "CREATE SEQUENCE orders_seq START 1000000000000 INCREMENT 50; " +
+        "CREATE SEQUENCE order_item_seq START 1000000000000 INCREMENT 50; " +
+        "CREATE SEQUENCE notifications_seq START 1000000000000 INCREMENT 50";
+
+    private static final String INSERT_ORDER =
+        "INSERT INTO orders (%suser_id, total_amount, status, created_at) " +
+        "VALUES (%s?, ?, 'PENDING', ?)";
+
+    private static final String INSERT_ORDER_ITEM =
+        "INSERT INTO order_item (%sorder_id, product_id, quantity, " +
+        "price_at_purchase) VALUES (%s?, ?, ?, ?)";
+
+    private static final String INSERT_NOTIFICATION =
+        "INSERT INTO notifications (%suser_id, message, is_read, created_at) " +
+        "VALUES (%s?, ?, false, ?)";
+
+    private final String schema =
+        "bench_insert_" + UUID.randomUUID().toString().replace("-", "");
+
+    private SingleConnectionDataSource adminSource;
+    private SingleConnectionDataSource benchSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private NotificationJdbcRepo notificationJdbcRepo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        adminSource = dataSource(null);
+        new JdbcTemplate(adminSource).execute("CREATE SCHEMA " + schema);
+
+        benchSource = dataSource(schema);
+        jdbcTemplate = new JdbcTemplate(benchSource);
+        transactionTemplate = new TransactionTemplate(
+            new DataSourceTransactionManager(benchSource)
+        );
+        notificationJdbcRepo = new NotificationJdbcRepo(jdbcTemplate);
+
+        jdbcTemplate.execute(SCHEMA_DDL);
+        jdbcTemplate.update(
+            "INSERT INTO users SELECT g FROM generate_series(1, ?) g",
+            WISHERS
+        );
+        jdbcTemplate.update(
+            "INSERT INTO product SELECT g FROM generate_series(1, ?) g",
+            ORDER_LINES
+        );
+        jdbcTemplate.update(
+            "INSERT INTO wishlist SELECT g, g, ? FROM generate_series(1, ?) g",
+            PRODUCT_ID,
+            WISHERS
+        );
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Keeps every iteration writing into tables of the same size
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE order_item, orders, notifications");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        benchSource.destroy();
+        new JdbcTemplate(adminSource).execute(
+            "DROP SCHEMA " + schema + " CASCADE"
+        );
+        adminSource.destroy();
+    }
+
+    @Benchmark
+    public long orderIdentity() {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            long orderId = jdbcTemplate.queryForObject(
+                String.format(INSERT_ORDER, "", "") + " RETURNING id",
+                Long.class,
+                1L,
+                BigDecimal.valueOf(4950),
+                now
+            );
+            for (int line = 1; line <= ORDER_LINES; line++) {
+                jdbcTemplate.queryForObject(
+                    String.format(INSERT_ORDER_ITEM, "", "") + " RETURNING id",
+                    Long.class,
+                    orderId,
+                    line,
+                    1,
+                    BigDecimal.valueOf(99)
+                );
+            }
+            return orderId;
+        });
+    }
+
+    @Benchmark
+    public long orderBatched() {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            long orderId = nextBlock("orders_seq");
+            jdbcTemplate.update(
+                String.format(INSERT_ORDER, "id, ", "?, "),
+                orderId,
+                1L,
+                BigDecimal.valueOf(4950),
+                now
+            );
+            long firstItemId = nextBlock("order_item_seq");
+            List<Object[]> lines = new ArrayList<>();
+            for (int line = 1; line <= ORDER_LINES; line++) {
+                lines.add(
+                    new Object[] {
+                        firstItemId + line - 1,
+                        orderId,
+                        line,
+                        1,
+                        BigDecimal.valueOf(99),
+                    }
+                );
+            }
+            jdbcTemplate.batchUpdate(
+                String.format(INSERT_ORDER_ITEM, "id, ", "?, "),
+                lines
+            );
+            return orderId;
+        });
+    }
+
+    @Benchmark
+    public int fanoutIdentity() {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            String sql =
+                String.format(INSERT_NOTIFICATION, "", "") + " RETURNING id";
+            for (long userId = 1; userId <= WISHERS; userId++) {
+                jdbcTemplate.queryForObject(
+                    sql,
+                    Long.class,
+                    userId,
+                    MESSAGE,
+                    now
+                );
+            }
+            return WISHERS;
+        });
+    }
+
+    @Benchmark
+    public int fanoutBatched() {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            String sql = String.format(INSERT_NOTIFICATION, "id, ", "?, ");
+            for (long first = 1; first <= WISHERS; first += BATCH_SIZE) {
+                long firstId = nextBlock("notifications_seq");
+                List<Object[]> batch = new ArrayList<>();
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    batch.add(
+                        new Object[] { firstId + i, first + i, MESSAGE, now }
+                    );
+                }
+                jdbcTemplate.batchUpdate(sql, batch);
+            }
+            return WISHERS;
+        });
+    }
+
+    @Benchmark
+    public int fanoutChunked() {
+        return transactionTemplate.execute(status -> {
+            int notified = 0;
+            long after = 0;
+            while (true) {
+                NotificationJdbcRepo.Chunk chunk =
+                    notificationJdbcRepo.insertRestockChunk(
+                        PRODUCT_ID,
+                        after,
+                        FANOUT_CHUNK,
+                        MESSAGE
+                    );
+                notified += chunk.inserted().size();
+                if (chunk.inserted().size() < FANOUT_CHUNK) {
+                    return notified;
+                }
+                after = chunk.lastWishlistId();
+            }
+        });
+    }
+
+    // A pooled sequence hands out 50 ids per nextval, as Hibernate uses it
+    private long nextBlock(String sequence) {
+        return jdbcTemplate.queryForObject(
+            "SELECT nextval('" + sequence + "')",
+            Long.class
+        );
+    }
+
+    // One connection for the whole trial, so connects are not measured;
+    // reWriteBatchedInserts matches the application's datasource
+    private static SingleConnectionDataSource dataSource(String schema) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+            System.getenv("DB_URL"),
+            System.getenv("DB_USER"),
+            System.getenv("DB_PASS"),
+            true
+        );
+        Properties properties = new Properties();
+        properties.setProperty("reWriteBatchedInserts", "true");
+        if (schema != null) {
+            properties.setProperty("currentSchema", schema);
+        }
+        dataSource.setConnectionProperties(properties);
+        return dataSource;
+    }
+}
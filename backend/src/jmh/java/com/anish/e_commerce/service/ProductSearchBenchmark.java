@@ -0,0 +1,162 @@
+package com.anish.e_commerce.service;
+
+import com.anish.e_commerce.config.ProductSearchIndexInitializer;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+// /api/products/search against a Postgres catalog of 100k and 1M products:
+//   like     - the old query: four LOWER(...) LIKE '%kw%' scans, every match
+//   fullText - the GIN-indexed search_vector ranked down to 50 ids, then the
+//              cards for those ids
+// Needs DB_URL / DB_USER / DB_PASS pointing at a database it may create a
+// throwaway schema in; the catalog is rebuilt for every trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String LIKE =
+        "SELECT id, name, brand, price FROM product WHERE " +
+        "LOWER(name) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+        "LOWER(description) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+        "LOWER(brand) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+        "LOWER(category) LIKE LOWER(CONCAT('%', ?, '%'))";
+
+    private static final String FULL_TEXT_IDS =
+        "SELECT id FROM product " +
+        "WHERE search_vector @@ to_tsquery('simple', ?) " +
+        "ORDER BY ts_rank(search_vector, to_tsquery('simple', ?)) DESC, id " +
+        "LIMIT 50";
+
+    private static final String CARDS_BY_IDS =
+        "SELECT id, name, brand, price FROM product WHERE id = ANY (?)";
+
+    // Names are "<adjective> <noun> <n>", so a noun matches about 1 row in 8
+    private static final String FILL =
+        "INSERT INTO product (id, name, description, brand, category, price) " +
+        "SELECT g, " +
+        "(ARRAY['rubber','wireless','ergonomic','vintage','compact'])" +
+        "[1 + g % 5] || ' ' || " +
+        "(ARRAY['duck','headphones','chair','lamp','kettle','backpack'," +
+        "'keyboard','watch'])[1 + g % 8] || ' ' || g, " +
+        "'Sturdy everyday item number ' || g || ', ships in two days', " +
+        "(ARRAY['Acme','Globex','Initech','Umbrella'])[1 + g % 4], " +
+        "(ARRAY['TOYS','ELECTRONICS','HOME','FASHION'])[1 + g % 4], " +
+        "(g % 500) + 0.99 " +
+        "FROM generate_series(1, ?) g";
+
+    @Param({ "100000", "1000000" })
+    private int rows;
+
+    // A whole word, and a half-typed two-word query
+    @Param({ "duck", "wireless head" })
+    private String keyword;
+
+    private final String schema =
+        "bench_search_" + UUID.randomUUID().toString().replace("-", "");
+
+    private SingleConnectionDataSource adminSource;
+    private SingleConnectionDataSource benchSource;
+    private JdbcTemplate jdbcTemplate;
+    private String prefixQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        adminSource = dataSource(null);
+        new JdbcTemplate(adminSource).execute("CREATE SCHEMA " + schema);
+
+        benchSource = dataSource(schema);
+        jdbcTemplate = new JdbcTemplate(benchSource);
+        jdbcTemplate.execute(
+            "CREATE TABLE product (id int PRIMARY KEY, name varchar(255), " +
+                "description varchar(255), brand varchar(255), " +
+                "category varchar(255), price numeric(38, 2))"
+        );
+        jdbcTemplate.update(FILL, rows);
+
+        // The same column and GIN index the application creates on startup
+        ProductSearchIndexInitializer initializer =
+            new ProductSearchIndexInitializer(jdbcTemplate, true);
+        initializer.run();
+        if (!initializer.isReady()) {
+            throw new IllegalStateException("Search index was not created");
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE product");
+
+        prefixQuery = ProductService.toPrefixQuery(keyword);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        benchSource.destroy();
+        new JdbcTemplate(adminSource).execute(
+            "DROP SCHEMA " + schema + " CASCADE"
+        );
+        adminSource.destroy();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> like() {
+        return jdbcTemplate.queryForList(
+            LIKE,
+            keyword,
+            keyword,
+            keyword,
+            keyword
+        );
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> fullText() {
+        List<Integer> ids = jdbcTemplate.queryForList(
+            FULL_TEXT_IDS,
+            Integer.class,
+            prefixQuery,
+            prefixQuery
+        );
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+            CARDS_BY_IDS,
+            (Object) ids.toArray(new Integer[0])
+        );
+    }
+
+    // One connection for the whole trial, so connects are not measured
+    private static SingleConnectionDataSource dataSource(String schema) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+            System.getenv("DB_URL"),
+            System.getenv("DB_USER"),
+            System.getenv("DB_PASS"),
+            true
+        );
+        if (schema != null) {
+            Properties properties = new Properties();
+            properties.setProperty("currentSchema", schema);
+            dataSource.setConnectionProperties(properties);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,267 @@
+package com.anish.e_commerce.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+// Jackson (Smile or JSON) cache values behind a one-byte header that says
+// whether the body was gzipped, replacing bulky JDK serialization blobs.
+public class CompactValueSerializer implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = 0;
+    private static final byte GZIP = 1;
+    private static final byte NULL = 2;
+
+    private final ObjectMapper mapper;
+    // Written as Object so the root always carries a type id: NON_FINAL
+    // typing skips it for final classes (List.of, toList(), records), which
+    // then cannot be read back as Object
+    private final ObjectWriter writer;
+    private final int compressAbove;
+    private final DistributionSummary plainBytes;
+    private final DistributionSummary gzipBytes;
+
+    public CompactValueSerializer(
+        JsonFactory factory,
+        int compressAbove,
+        MeterRegistry meterRegistry,
+        String cacheName
+    ) {
+        this.mapper = mapper(factory);
+        this.writer = mapper.writerFor(Object.class);
+        this.compressAbove = compressAbove;
+        this.plainBytes = entryBytes(meterRegistry, cacheName, "none");
+        this.gzipBytes = entryBytes(meterRegistry, cacheName, "gzip");
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || value instanceof NullValue) {
+            return new byte[] { NULL };
+        }
+        try {
+            byte[] body = writer.writeValueAsBytes(value);
+
+            // 1. Small entries are cheaper to store as-is than to inflate
+            if (body.length <= compressAbove) {
+                plainBytes.record(body.length + 1);
+                return frame(PLAIN, body);
+            }
+
+            // 2. Large pages shrink well; keep gzip only when it actually helps
+            byte[] zipped = gzip(body);
+            if (zipped.length >= body.length) {
+                plainBytes.record(body.length + 1);
+                return frame(PLAIN, body);
+            }
+            gzipBytes.record(zipped.length + 1);
+            return frame(GZIP, zipped);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case NULL -> NullValue.INSTANCE;
+                case PLAIN -> mapper.readValue(
+                    bytes,
+                    1,
+                    bytes.length - 1,
+                    Object.class
+                );
+                case GZIP -> mapper.readValue(gunzip(bytes), Object.class);
+                default -> throw new SerializationException(
+                    "Unknown cache value header: " + bytes[0]
+                );
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(
+                new SimpleModule()
+                    .addSerializer(new PageSerializer())
+                    .addDeserializer(PageImpl.class, new PageDeserializer())
+            );
+
+        // Type ids are needed to read values back as Object; only our own
+        // DTOs and the JDK/Spring Data types they are built from are allowed
+        mapper.activateDefaultTyping(
+            BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.anish.e_commerce.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.math.")
+                .allowIfSubType("org.springframework.data.domain.")
+                .build(),
+            ObjectMapper.DefaultTyping.NON_FINAL
+        );
+        return mapper;
+    }
+
+    private static DistributionSummary entryBytes(
+        MeterRegistry meterRegistry,
+        String cacheName,
+        String compression
+    ) {
+        return DistributionSummary.builder("cache.redis.entry.size")
+            .description("Bytes written to Redis per cache entry")
+            .baseUnit("bytes")
+            .tag("cache", cacheName)
+            .tag("compression", compression)
+            .register(meterRegistry);
+    }
+
+    private static byte[] frame(byte header, byte[] body) {
+        byte[] framed = new byte[body.length + 1];
+        framed[0] = header;
+        System.arraycopy(body, 0, framed, 1, body.length);
+        return framed;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] framed) throws IOException {
+        try (
+            GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(framed, 1, framed.length - 1)
+            )
+        ) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    // PageImpl has no creator Jackson can use, so only its essentials are kept
+    private static final class PageSerializer
+        extends StdSerializer<PageImpl<?>> {
+
+        PageSerializer() {
+            super(PageImpl.class, false);
+        }
+
+        @Override
+        public void serialize(
+            PageImpl<?> page,
+            JsonGenerator gen,
+            SerializerProvider provider
+        ) throws IOException {
+            gen.writeStartObject();
+            writeFields(page, gen, provider);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(
+            PageImpl<?> page,
+            JsonGenerator gen,
+            SerializerProvider provider,
+            TypeSerializer typeSer
+        ) throws IOException {
+            WritableTypeId typeId = typeSer.writeTypePrefix(
+                gen,
+                typeSer.typeId(page, JsonToken.START_OBJECT)
+            );
+            writeFields(page, gen, provider);
+            typeSer.writeTypeSuffix(gen, typeId);
+        }
+
+        private void writeFields(
+            PageImpl<?> page,
+            JsonGenerator gen,
+            SerializerProvider provider
+        ) throws IOException {
+            // Copied so the list type id is one that can be read back
+            provider.defaultSerializeField(
+                "content",
+                new ArrayList<>(page.getContent()),
+                gen
+            );
+            gen.writeNumberField("page", page.getNumber());
+            gen.writeNumberField("size", page.getSize());
+            gen.writeNumberField("total", page.getTotalElements());
+        }
+    }
+
+    private static final class PageDeserializer
+        extends StdDeserializer<PageImpl<?>> {
+
+        PageDeserializer() {
+            super(PageImpl.class);
+        }
+
+        @Override
+        public PageImpl<?> deserialize(
+            JsonParser p,
+            DeserializationContext ctxt
+        ) throws IOException {
+            List<?> content = List.of();
+            int page = 0;
+            int size = 1;
+            long total = 0;
+
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "content" -> content = ctxt.readValue(p, List.class);
+                    case "page" -> page = p.getIntValue();
+                    case "size" -> size = p.getIntValue();
+                    case "total" -> total = p.getLongValue();
+                    default -> p.skipChildren();
+                }
+            }
+            return new PageImpl<>(
+                content,
+                PageRequest.of(page, Math.max(size, 1)),
+                total
+            );
+        }
+    }
+}
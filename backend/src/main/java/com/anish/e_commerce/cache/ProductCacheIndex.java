@@ -0,0 +1,227 @@
+package com.anish.e_commerce.cache;
+
+import com.anish.e_commerce.event.ProductChangedEvent;
+import com.anish.e_commerce.event.StockChangedEvent;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.repo.ProductRepo;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Records which "products" cache entries contain which product ids, so a
+// write only evicts the pages and filter results it can actually affect.
+// Filter results are tagged by their criteria, not per page: a product
+// joining or leaving a search shifts every later page of it too.
+@Component
+public class ProductCacheIndex {
+
+    private static final String PAGES_KEY = "products:idx:pages";
+    private static final String FILTERS_KEY = "products:idx:filters";
+    private static final String FILTER_PAGES_KEY_PREFIX =
+        "products:idx:filter:";
+    private static final String PRODUCT_KEY_PREFIX = "products:idx:id:";
+    // Bumped by every write before it evicts
+    private static final String GENERATION_KEY = "products:idx:generation";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final ProductRepo productRepo;
+    private final Duration ttl;
+
+    public ProductCacheIndex(
+        StringRedisTemplate redisTemplate,
+        CacheManager cacheManager,
+        ProductRepo productRepo,
+        @Value("${spring.cache.redis.time-to-live:60m}") Duration ttl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.productRepo = productRepo;
+        this.ttl = ttl;
+    }
+
+    // Cache-aside for the "products" cache, tagging only after the put so
+    // no write can evict the tags before the entry exists. A write that
+    // lands while the value loads moves the generation, and the entry,
+    // possibly built from rows read before it, is evicted again.
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(
+        String cacheKey,
+        Supplier<T> loader,
+        Function<T, Collection<Integer>> productIds
+    ) {
+        Cache products = cacheManager.getCache("products");
+        if (products == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper hit = products.get(cacheKey);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+
+        String generation = generation();
+        T value = loader.get();
+        products.put(cacheKey, value);
+        if (ProductCacheKeys.isFilter(cacheKey)) {
+            String criteria = ProductCacheKeys.criteria(cacheKey);
+            tag(FILTERS_KEY, criteria, cacheKey, productIds.apply(value));
+        } else {
+            tag(PAGES_KEY, cacheKey, cacheKey, productIds.apply(value));
+        }
+        if (!Objects.equals(generation, generation())) {
+            products.evict(cacheKey);
+        }
+        return value;
+    }
+
+    private String generation() {
+        return redisTemplate.opsForValue().get(GENERATION_KEY);
+    }
+
+    private void tag(
+        String groupKey,
+        String tag,
+        String cacheKey,
+        Collection<Integer> productIds
+    ) {
+        redisTemplate.executePipelined(
+            new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations)
+                    throws DataAccessException {
+                    RedisOperations<String, String> ops =
+                        (RedisOperations<String, String>) operations;
+
+                    ops.opsForSet().add(groupKey, tag);
+                    ops.expire(groupKey, ttl);
+                    if (ProductCacheKeys.isFilter(tag)) {
+                        String pagesKey = FILTER_PAGES_KEY_PREFIX + tag;
+                        ops.opsForSet().add(pagesKey, cacheKey);
+                        ops.expire(pagesKey, ttl);
+                    }
+                    for (Integer productId : productIds) {
+                        String productKey = PRODUCT_KEY_PREFIX + productId;
+                        ops.opsForSet().add(productKey, tag);
+                        ops.expire(productKey, ttl);
+                    }
+                    return null;
+                }
+            }
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        int productId = event.productId();
+        Cache products = cacheManager.getCache("products");
+        Cache product = cacheManager.getCache("product");
+        if (products == null || product == null) {
+            return;
+        }
+
+        redisTemplate.opsForValue().increment(GENERATION_KEY);
+        product.evict(productId);
+
+        // 1. Every entry that already lists this product is stale
+        Set<String> containing = evictTagged(
+            products,
+            PRODUCT_KEY_PREFIX + productId
+        );
+
+        // 2. Adds and deletes shift every page and its total count
+        if (event.type() != ProductChangedEvent.Type.UPDATED) {
+            evictTagged(products, PAGES_KEY);
+        }
+
+        // 3. Filter results that did not list it but could match it now
+        if (event.type() != ProductChangedEvent.Type.DELETED) {
+            productRepo
+                .findById(productId)
+                .ifPresent(current ->
+                    evictMatchingFilters(products, current, containing)
+                );
+        }
+    }
+
+    // Stock moves keep pages intact but can flip "available", so only the
+    // entries listing these products and the filters they now match go
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        Cache products = cacheManager.getCache("products");
+        Cache product = cacheManager.getCache("product");
+        if (products == null || product == null) {
+            return;
+        }
+
+        redisTemplate.opsForValue().increment(GENERATION_KEY);
+        Set<String> evicted = new HashSet<>();
+        for (int productId : event.productIds()) {
+            product.evict(productId);
+            evicted.addAll(
+                evictTagged(products, PRODUCT_KEY_PREFIX + productId)
+            );
+        }
+        for (Product current : productRepo.findAllById(event.productIds())) {
+            evictMatchingFilters(products, current, evicted);
+        }
+    }
+
+    // Returns the tags evicted: page keys and filter criteria
+    private Set<String> evictTagged(Cache cache, String tagKey) {
+        Set<String> tags = redisTemplate.opsForSet().members(tagKey);
+        if (tags == null || tags.isEmpty()) {
+            return Set.of();
+        }
+        tags.forEach(tag -> evict(cache, tag));
+        redisTemplate.delete(tagKey);
+        return tags;
+    }
+
+    // A filter criteria tag takes every cached page of that search with it
+    private void evict(Cache cache, String tag) {
+        if (!ProductCacheKeys.isFilter(tag)) {
+            cache.evict(tag);
+            return;
+        }
+        String pagesKey = FILTER_PAGES_KEY_PREFIX + tag;
+        Set<String> pages = redisTemplate.opsForSet().members(pagesKey);
+        if (pages != null) {
+            pages.forEach(cache::evict);
+        }
+        redisTemplate.delete(pagesKey);
+        redisTemplate.opsForSet().remove(FILTERS_KEY, tag);
+    }
+
+    private void evictMatchingFilters(
+        Cache cache,
+        Product current,
+        Set<String> alreadyEvicted
+    ) {
+        Set<String> criteria = redisTemplate.opsForSet().members(FILTERS_KEY);
+        if (criteria == null) {
+            return;
+        }
+        for (String filter : criteria) {
+            if (
+                !alreadyEvicted.contains(filter) &&
+                ProductCacheKeys.matchesFilter(filter, current)
+            ) {
+                evict(cache, filter);
+            }
+        }
+    }
+}
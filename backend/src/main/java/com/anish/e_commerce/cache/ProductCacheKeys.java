@@ -0,0 +1,122 @@
+package com.anish.e_commerce.cache;
+
+import com.anish.e_commerce.model.Product;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+// Keys for the "products" cache. Filter keys carry their own criteria so a
+// product write can tell whether a cached result could now include it.
+public final class ProductCacheKeys {
+
+    private static final String FILTER_PREFIX = "filter|";
+
+    private ProductCacheKeys() {}
+
+    public static String page(int page, int size) {
+        return "page-" + page + "-size-" + size;
+    }
+
+    public static String filter(
+        String keyword,
+        Product.ProductCategory category,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean available,
+        String sortDir,
+        int page,
+        int size
+    ) {
+        return (
+            FILTER_PREFIX +
+            encode(keyword) +
+            "|" +
+            (category != null ? category.name() : "") +
+            "|" +
+            (minPrice != null ? minPrice.toPlainString() : "") +
+            "|" +
+            (maxPrice != null ? maxPrice.toPlainString() : "") +
+            "|" +
+            (available != null ? available.toString() : "") +
+            "|" +
+            (sortDir != null ? sortDir.toLowerCase() : "") +
+            "|" +
+            page +
+            "|" +
+            size
+        );
+    }
+
+    // A filter key without its "|page|size" suffix; every page of one
+    // search shares it
+    public static String criteria(String filterKey) {
+        int size = filterKey.lastIndexOf('|');
+        int page = filterKey.lastIndexOf('|', size - 1);
+        return filterKey.substring(0, page);
+    }
+
+    public static boolean isFilter(String key) {
+        return key.startsWith(FILTER_PREFIX);
+    }
+
+    public static boolean matchesFilter(String key, Product product) {
+        String[] parts = key.split("\\|", -1);
+        if (parts.length < 6 || !isFilter(key)) {
+            return true; // Unknown shape, be conservative
+        }
+
+        String keyword = decode(parts[1]).toLowerCase();
+        if (
+            !keyword.isEmpty() &&
+            !containsIgnoreCase(product.getName(), keyword) &&
+            !containsIgnoreCase(product.getBrand(), keyword)
+        ) {
+            return false;
+        }
+
+        if (
+            !parts[2].isEmpty() &&
+            (product.getCategory() == null ||
+                !product.getCategory().name().equals(parts[2]))
+        ) {
+            return false;
+        }
+
+        BigDecimal price = product.getPrice();
+        if (
+            !parts[3].isEmpty() &&
+            (price == null || price.compareTo(new BigDecimal(parts[3])) < 0)
+        ) {
+            return false;
+        }
+        if (
+            !parts[4].isEmpty() &&
+            (price == null || price.compareTo(new BigDecimal(parts[4])) > 0)
+        ) {
+            return false;
+        }
+
+        return (
+            parts[5].isEmpty() ||
+            Boolean.parseBoolean(parts[5]) == product.isAvailable()
+        );
+    }
+
+    private static boolean containsIgnoreCase(
+        String value,
+        String lowerKeyword
+    ) {
+        return value != null && value.toLowerCase().contains(lowerKeyword);
+    }
+
+    private static String encode(String value) {
+        return value == null
+            ? ""
+            : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,327 @@
+package com.anish.e_commerce.cart;
+
+import com.anish.e_commerce.dto.CartItemResponse;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.repo.CartItemRepo;
+import com.anish.e_commerce.repo.CartJdbcRepo;
+import com.anish.e_commerce.repo.ProductRepo;
+import com.anish.e_commerce.search.CatalogIndex;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Cart mode where Redis is the working copy: one hash per user, read through
+// from Postgres on a miss and written back behind the request. However many
+// edits land between two flushes, Postgres sees one rewrite of the cart.
+//
+//   cart:{username} -> productId: quantity, "_" (marks a loaded cart)
+//   carts:dirty     -> usernames with edits not yet in Postgres
+@Slf4j
+@Component
+public class RedisCartStore {
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String DIRTY_KEY = "carts:dirty";
+    private static final String LOADED = "_";
+    private static final Duration TTL = Duration.ofDays(7);
+    private static final int FLUSH_BATCH = 100;
+
+    // Seeds the hash unless a concurrent request already did, then reads it
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SEED = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+            "redis.call('HSET', KEYS[1], unpack(ARGV, 2)) " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return redis.call('HGETALL', KEYS[1])",
+        List.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartItemRepo cartItemRepo;
+    private final CartJdbcRepo cartJdbcRepo;
+    private final ProductRepo productRepo;
+    private final CatalogIndex catalogIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public RedisCartStore(
+        StringRedisTemplate redisTemplate,
+        CartItemRepo cartItemRepo,
+        CartJdbcRepo cartJdbcRepo,
+        ProductRepo productRepo,
+        CatalogIndex catalogIndex,
+        PlatformTransactionManager transactionManager,
+        @Value("${cart.store:database}") String store
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.cartItemRepo = cartItemRepo;
+        this.cartJdbcRepo = cartJdbcRepo;
+        this.productRepo = productRepo;
+        this.catalogIndex = catalogIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = "redis".equalsIgnoreCase(store);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<CartItemResponse> items(String username) {
+        return hydrate(load(username));
+    }
+
+    public List<CartItemResponse> put(
+        String username,
+        int productId,
+        int quantity
+    ) {
+        return apply(username, Map.of(productId, quantity));
+    }
+
+    public List<CartItemResponse> remove(String username, int productId) {
+        return apply(username, Map.of(productId, 0));
+    }
+
+    // Quantity 0 removes; all changes reach Redis in one pipelined write
+    public List<CartItemResponse> apply(
+        String username,
+        Map<Integer, Integer> changes
+    ) {
+        SortedMap<Integer, Integer> quantities = load(username);
+        changes.forEach((productId, quantity) -> {
+            if (quantity > 0) {
+                quantities.put(productId, quantity);
+            } else {
+                quantities.remove(productId);
+            }
+        });
+
+        // Hydrating doubles as validation: unknown products have no card
+        List<CartItemResponse> items = hydrate(quantities);
+        Set<Integer> known = new HashSet<>();
+        items.forEach(item -> known.add(item.getId()));
+        changes.forEach((productId, quantity) -> {
+            if (quantity > 0 && !known.contains(productId)) {
+                throw new RuntimeException("Invalid Product ID: " + productId);
+            }
+        });
+
+        write(username, redis ->
+            changes.forEach((productId, quantity) -> {
+                String field = String.valueOf(productId);
+                if (quantity > 0) {
+                    redis.hSet(key(username), field, String.valueOf(quantity));
+                } else {
+                    redis.hDel(key(username), field);
+                }
+            })
+        );
+        return items;
+    }
+
+    // Checkout clears the cart inside the payment transaction; Redis follows
+    // only once that has committed
+    public void clear(String username) {
+        afterCommit(() ->
+            write(username, redis -> {
+                redis.del(key(username));
+                redis.hSet(key(username), LOADED, "1");
+            })
+        );
+    }
+
+    // Makes Postgres current for one user, e.g. before checkout reads it
+    public void flush(String username) {
+        Long pending = redisTemplate.opsForSet().remove(DIRTY_KEY, username);
+        if (pending == null || pending == 0) {
+            return;
+        }
+        try {
+            writeThrough(username);
+        } catch (RuntimeException e) {
+            redisTemplate.opsForSet().add(DIRTY_KEY, username);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.flush-interval:5s}")
+    public void flushDirty() {
+        if (!enabled) {
+            return;
+        }
+        List<String> usernames;
+        do {
+            usernames = redisTemplate.opsForSet().pop(DIRTY_KEY, FLUSH_BATCH);
+            if (usernames == null) {
+                return;
+            }
+            for (int i = 0; i < usernames.size(); i++) {
+                try {
+                    writeThrough(usernames.get(i));
+                } catch (RuntimeException e) {
+                    // It and the rest of the batch are marked again for the
+                    // next run; stop so they are not popped straight back
+                    redisTemplate
+                        .opsForSet()
+                        .add(
+                            DIRTY_KEY,
+                            usernames
+                                .subList(i, usernames.size())
+                                .toArray(String[]::new)
+                        );
+                    log.warn(
+                        "Failed to flush cart of {}",
+                        usernames.get(i),
+                        e
+                    );
+                    return;
+                }
+            }
+        } while (usernames.size() == FLUSH_BATCH);
+    }
+
+    // The hash is read under the cart row lock, so when two nodes flush the
+    // same user the later one writes the newer state
+    private void writeThrough(String username) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> cartIds = cartJdbcRepo.lockCart(username);
+            Map<Object, Object> hash = redisTemplate
+                .opsForHash()
+                .entries(key(username));
+            // An expired hash has nothing newer than Postgres
+            if (cartIds.isEmpty() || hash.isEmpty()) {
+                return;
+            }
+            cartJdbcRepo.replaceItems(cartIds.get(0), quantities(hash));
+        });
+    }
+
+    private SortedMap<Integer, Integer> load(String username) {
+        Map<Object, Object> hash = redisTemplate
+            .opsForHash()
+            .entries(key(username));
+        if (!hash.isEmpty()) {
+            return quantities(hash);
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(TTL.toSeconds()));
+        args.add(LOADED);
+        args.add("1");
+        for (CartItemResponse item : cartItemRepo.findItemsByUsername(
+            username
+        )) {
+            args.add(String.valueOf(item.getId()));
+            args.add(String.valueOf(item.getQuantity()));
+        }
+        List<?> seeded = redisTemplate.execute(
+            SEED,
+            List.of(key(username)),
+            args.toArray()
+        );
+
+        Map<Object, Object> fields = new HashMap<>();
+        if (seeded != null) {
+            for (int i = 0; i + 1 < seeded.size(); i += 2) {
+                fields.put(seeded.get(i), seeded.get(i + 1));
+            }
+        }
+        return quantities(fields);
+    }
+
+    // Cards come from the in-memory catalog; only misses go to Postgres
+    private List<CartItemResponse> hydrate(Map<Integer, Integer> quantities) {
+        Map<Integer, ProductCardResponse> cards = new HashMap<>(
+            catalogIndex.cards(quantities.keySet())
+        );
+        Set<Integer> missing = new HashSet<>(quantities.keySet());
+        missing.removeAll(cards.keySet());
+        if (!missing.isEmpty()) {
+            productRepo
+                .findCardsByIdIn(missing)
+                .forEach(card -> cards.put(card.getId(), card));
+        }
+
+        List<CartItemResponse> items = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            ProductCardResponse card = cards.get(productId);
+            if (card != null) {
+                items.add(
+                    new CartItemResponse(
+                        productId,
+                        card.getName(),
+                        card.getPrice(),
+                        card.getImageUrl(),
+                        quantity
+                    )
+                );
+            }
+        });
+        return items;
+    }
+
+    private void write(String username, Consumer<StringRedisConnection> op) {
+        redisTemplate.executePipelined((RedisCallback<Object>) conn -> {
+            StringRedisConnection redis = (StringRedisConnection) conn;
+            op.accept(redis);
+            redis.expire(key(username), TTL.toSeconds());
+            redis.sAdd(DIRTY_KEY, username);
+            return null;
+        });
+    }
+
+    private static SortedMap<Integer, Integer> quantities(
+        Map<Object, Object> hash
+    ) {
+        SortedMap<Integer, Integer> quantities = new TreeMap<>();
+        hash.forEach((field, value) -> {
+            if (!LOADED.equals(field)) {
+                quantities.put(
+                    Integer.parseInt(field.toString()),
+                    Integer.parseInt(value.toString())
+                );
+            }
+        });
+        return quantities;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    private static String key(String username) {
+        return KEY_PREFIX + username;
+    }
+}
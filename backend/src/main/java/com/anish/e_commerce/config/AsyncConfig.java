@@ -0,0 +1,25 @@
+package com.anish.e_commerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Background work that must never hold up the request that triggered it
+    @Bean
+    public ThreadPoolTaskExecutor fanoutExecutor(
+        @Value("${notifications.fanout.threads:2}") int threads
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1_000);
+        executor.setThreadNamePrefix("fanout-");
+        return executor;
+    }
+}
@@ -0,0 +1,146 @@
+package com.anish.e_commerce.config;
+
+import com.anish.e_commerce.cache.CompactValueSerializer;
+import com.anish.e_commerce.cache.TwoTierCacheManager;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    // Bump when the stored value format changes so old entries are skipped
+    private static final String KEY_VERSION = "v2:";
+    private static final List<String> CACHE_NAMES = List.of(
+        "products",
+        "product"
+    );
+
+    @Bean
+    public TwoTierCacheManager cacheManager(
+        RedisConnectionFactory connectionFactory,
+        StringRedisTemplate redisTemplate,
+        CacheProperties cacheProperties,
+        MeterRegistry meterRegistry,
+        @Value("${cache.near.max-size:1000}") long nearMaxSize,
+        @Value("${cache.near.ttl:30s}") Duration nearTtl,
+        @Value("${cache.redis.codec:smile}") String codec,
+        @Value("${cache.redis.compress-above:1KB}") DataSize compressAbove,
+        @Value("${trending.cache-ttl:60s}") Duration trendingTtl
+    ) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration
+            .defaultCacheConfig()
+            .prefixCacheNameWith(KEY_VERSION);
+        Duration ttl = cacheProperties.getRedis().getTimeToLive();
+        if (ttl != null) {
+            defaults = defaults.entryTtl(ttl);
+        }
+
+        // One serializer per cache so entry sizes are reported per cache
+        RedisCacheManager.RedisCacheManagerBuilder builder =
+            RedisCacheManager.builder(connectionFactory).cacheDefaults(
+                withSerializer(
+                    defaults,
+                    codec,
+                    compressAbove,
+                    meterRegistry,
+                    "other"
+                )
+            );
+        for (String name : CACHE_NAMES) {
+            builder.withCacheConfiguration(
+                name,
+                withSerializer(
+                    defaults,
+                    codec,
+                    compressAbove,
+                    meterRegistry,
+                    name
+                )
+            );
+        }
+        // Rankings move with every order, so they are kept only briefly
+        builder.withCacheConfiguration(
+            "trending",
+            withSerializer(
+                defaults.entryTtl(trendingTtl),
+                codec,
+                compressAbove,
+                meterRegistry,
+                "trending"
+            )
+        );
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(
+            redisCacheManager,
+            redisTemplate,
+            nearMaxSize,
+            nearTtl
+        );
+    }
+
+    // Public so tests can round-trip cached types through the real codec
+    public static CompactValueSerializer valueSerializer(
+        String codec,
+        DataSize compressAbove,
+        MeterRegistry meterRegistry,
+        String cacheName
+    ) {
+        JsonFactory factory = "json".equalsIgnoreCase(codec)
+            ? new JsonFactory()
+            : new SmileFactory();
+        return new CompactValueSerializer(
+            factory,
+            (int) compressAbove.toBytes(),
+            meterRegistry,
+            cacheName
+        );
+    }
+
+    private static RedisCacheConfiguration withSerializer(
+        RedisCacheConfiguration config,
+        String codec,
+        DataSize compressAbove,
+        MeterRegistry meterRegistry,
+        String cacheName
+    ) {
+        return config.serializeValuesWith(
+            SerializationPair.fromSerializer(
+                valueSerializer(codec, compressAbove, meterRegistry, cacheName)
+            )
+        );
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+        RedisConnectionFactory connectionFactory,
+        TwoTierCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container =
+            new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            cacheManager,
+            new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL)
+        );
+        return container;
+    }
+}
@@ -66,6 +66,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.FASHION,
                 new Date(),
                 true,
+                false,
                 10,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491563/backpack_vcbd8g.jpg"
             )
@@ -82,6 +83,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.ELECTRONICS,
                 new Date(),
                 true,
+                false,
                 8,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491563/keyboard_fk5yo0.jpg"
             )
@@ -98,6 +100,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.TOYS_GAMES,
                 new Date(),
                 true,
+                false,
                 20,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491560/plushie_pkjwfl.jpg"
             )
@@ -114,6 +117,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.FASHION,
                 new Date(),
                 true,
+                false,
                 50,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491562/tshirt_jngcar.jpg"
             )
@@ -130,6 +134,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.ELECTRONICS,
                 new Date(),
                 true,
+                false,
                 15,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491838/earphones_lkhors.jpg"
             )
@@ -146,6 +151,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.FASHION,
                 new Date(),
                 true,
+                false,
                 30,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491562/tshirt_jngcar.jpg"
             )
@@ -162,6 +168,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.ELECTRONICS,
                 new Date(),
                 true,
+                false,
                 25,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491563/keyboard_fk5yo0.jpg"
             )
@@ -178,6 +185,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.HOME_KITCHEN,
                 new Date(),
                 true,
+                false,
                 40,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491563/backpack_vcbd8g.jpg"
             )
@@ -194,6 +202,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.TOYS_GAMES,
                 new Date(),
                 true,
+                false,
                 100,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491560/plushie_pkjwfl.jpg"
             )
@@ -210,6 +219,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.FASHION,
                 new Date(),
                 true,
+                false,
                 50,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491838/earphones_lkhors.jpg"
             )
@@ -226,6 +236,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.ELECTRONICS,
                 new Date(),
                 true,
+                false,
                 200,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491563/keyboard_fk5yo0.jpg"
             )
@@ -242,6 +253,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.HOME_KITCHEN,
                 new Date(),
                 true,
+                false,
                 15,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491838/earphones_lkhors.jpg"
             )
@@ -258,6 +270,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.TOYS_GAMES,
                 new Date(),
                 true,
+                false,
                 5,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491560/plushie_pkjwfl.jpg"
             )
@@ -274,6 +287,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.FASHION,
                 new Date(),
                 true,
+                false,
                 45,
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491562/tshirt_jngcar.jpg"
             )
@@ -290,6 +304,7 @@ public class DevSeeder implements CommandLineRunner {
                 ProductCategory.ELECTRONICS,
                 new Date(),
                 false, // Set to false to test out-of-stock logic!
+                false,
                 0, // 0 quantity
                 "https://res.cloudinary.com/dhagorcpe/image/upload/v1752491563/backpack_vcbd8g.jpg"
             )
@@ -0,0 +1,61 @@
+package com.anish.e_commerce.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// These tables used to take ids from IDENTITY columns. Their pooled
+// sequences are created empty by ddl-auto, so each one is moved past the
+// highest existing id before the first insert can ask it for a block.
+@Component
+@Slf4j
+public class IdSequenceInitializer implements InitializingBean {
+
+    // sequence -> table
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "orders_seq",
+        "orders",
+        "order_item_seq",
+        "order_item",
+        "cart_item_seq",
+        "cart_item",
+        "notifications_seq",
+        "notifications",
+        "wishlist_seq",
+        "wishlist",
+        "stock_reservations_seq",
+        "stock_reservations"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taking the EntityManagerFactory makes sure ddl-auto has already
+    // created the sequences when this runs
+    public IdSequenceInitializer(
+        JdbcTemplate jdbcTemplate,
+        EntityManagerFactory entityManagerFactory
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEQUENCES.forEach((sequence, table) ->
+            jdbcTemplate.queryForObject(
+                "SELECT setval('" +
+                    sequence +
+                    "', GREATEST(" +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " +
+                    table +
+                    "), (SELECT last_value FROM " +
+                    sequence +
+                    ")))",
+                Long.class
+            )
+        );
+        log.info("✅ Id sequences aligned with existing rows");
+    }
+}
@@ -0,0 +1,60 @@
+package com.anish.e_commerce.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Hibernate's ddl-auto cannot express generated tsvector columns or GIN
+// indexes, so the full-text search schema is applied here on startup.
+@Component
+@Slf4j
+public class ProductSearchIndexInitializer implements CommandLineRunner {
+
+    private static final String ADD_SEARCH_VECTOR =
+        "ALTER TABLE product ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+        "GENERATED ALWAYS AS (" +
+        "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+        "setweight(to_tsvector('simple', coalesce(brand, '')), 'A') || " +
+        "setweight(to_tsvector('simple', coalesce(category, '')), 'B') || " +
+        "setweight(to_tsvector('simple', coalesce(description, '')), 'C')" +
+        ") STORED";
+
+    private static final String CREATE_SEARCH_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_product_search_vector " +
+        "ON product USING GIN (search_vector)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public ProductSearchIndexInitializer(
+        JdbcTemplate jdbcTemplate,
+        @Value("${search.full-text.enabled:true}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) return;
+
+        try {
+            jdbcTemplate.execute(ADD_SEARCH_VECTOR);
+            jdbcTemplate.execute(CREATE_SEARCH_INDEX);
+            ready = true;
+            log.info("✅ Full-text product search index is ready");
+        } catch (Exception e) {
+            log.warn(
+                "⚠️ Could not create full-text search index, falling back to LIKE search",
+                e
+            );
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
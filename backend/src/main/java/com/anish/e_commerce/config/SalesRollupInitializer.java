@@ -0,0 +1,56 @@
+package com.anish.e_commerce.config;
+
+import com.anish.e_commerce.model.SalesRollup;
+import com.anish.e_commerce.repo.SalesRollupJdbcRepo;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Fills the rollup table from order history the first time it is empty.
+// Runs before this node takes traffic; the advisory lock keeps nodes that
+// start together from backfilling twice.
+@Component
+@Slf4j
+public class SalesRollupInitializer implements InitializingBean {
+
+    private static final long LOCK_KEY = 0x5A1E5L;
+
+    private final SalesRollupJdbcRepo rollupJdbcRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Taking the EntityManagerFactory makes sure ddl-auto has already
+    // created the table when this runs
+    public SalesRollupInitializer(
+        SalesRollupJdbcRepo rollupJdbcRepo,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory
+    ) {
+        this.rollupJdbcRepo = rollupJdbcRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(
+                "SELECT pg_advisory_xact_lock(?)::text",
+                String.class,
+                LOCK_KEY
+            );
+            if (!rollupJdbcRepo.isEmpty()) {
+                return;
+            }
+            for (SalesRollup.Grain grain : SalesRollup.Grain.values()) {
+                rollupJdbcRepo.backfill(grain);
+            }
+            log.info("✅ Sales rollups backfilled from order history");
+        });
+    }
+}
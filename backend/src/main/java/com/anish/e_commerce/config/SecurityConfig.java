@@ -2,8 +2,11 @@ package com.anish.e_commerce.config;
 
 import com.anish.e_commerce.config.RateLimitFilter;
 import com.anish.e_commerce.jwt.JwtAuthFilter;
+import com.anish.e_commerce.jwt.JwtKeyringProperties;
 import com.anish.e_commerce.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.*;
 import org.springframework.security.config.Customizer;
@@ -20,6 +23,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 @RequiredArgsConstructor
 @EnableMethodSecurity
+@EnableConfigurationProperties(JwtKeyringProperties.class)
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
@@ -34,6 +38,10 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth ->
                 auth
+                    // Async dispatches finish responses (e.g. SSE streams)
+                    // that were already authorized when they started
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
                     // 0. Allow Swagger UI & OpenAPI Docs
                     .requestMatchers(
                         "/v3/api-docs/**",
@@ -41,6 +49,10 @@ public class SecurityConfig {
                         "/swagger-ui.html"
                     )
                     .permitAll()
+                    .requestMatchers("/actuator/health")
+                    .permitAll()
+                    .requestMatchers("/actuator/**")
+                    .hasRole("ADMIN")
                     // 1. Public API Endpoints
                     .requestMatchers("/api/auth/**")
                     .permitAll()
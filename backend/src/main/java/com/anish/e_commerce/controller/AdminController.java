@@ -1,12 +1,25 @@
 package com.anish.e_commerce.controller;
 
 import com.anish.e_commerce.dto.AdminStatsResponse;
+import com.anish.e_commerce.dto.AnalyticsResponse;
+import com.anish.e_commerce.dto.HotSkuStatus;
+import com.anish.e_commerce.dto.RestockFanoutProgress;
+import com.anish.e_commerce.inventory.HotSkuInventory;
 import com.anish.e_commerce.service.AdminService;
+import com.anish.e_commerce.service.AnalyticsService;
+import com.anish.e_commerce.service.RestockFanoutService;
+import java.time.LocalDate;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -15,10 +28,59 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AnalyticsService analyticsService;
+    private final HotSkuInventory hotSkuInventory;
+    private final RestockFanoutService restockFanoutService;
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminStatsResponse> getDashboardStats() {
         return ResponseEntity.ok(adminService.getStats());
     }
+
+    // Defaults to the last 30 days by day
+    @GetMapping("/analytics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AnalyticsResponse> getAnalytics(
+        @RequestParam(required = false) @DateTimeFormat(
+            iso = DateTimeFormat.ISO.DATE
+        ) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(
+            iso = DateTimeFormat.ISO.DATE
+        ) LocalDate to,
+        @RequestParam(defaultValue = "day") String granularity
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(
+            analyticsService.getSeries(start, end, granularity)
+        );
+    }
+
+    @GetMapping("/inventory/hot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<HotSkuStatus>> getHotSkus() {
+        return ResponseEntity.ok(hotSkuInventory.status());
+    }
+
+    // Moves a product's stock counting into Redis ahead of a flash sale
+    @PutMapping("/inventory/hot/{productId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> flagHotSku(@PathVariable int productId) {
+        hotSkuInventory.flag(productId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/inventory/hot/{productId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> unflagHotSku(@PathVariable int productId) {
+        hotSkuInventory.unflag(productId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/notifications/restock-jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RestockFanoutProgress>> getRestockJobs() {
+        return ResponseEntity.ok(restockFanoutService.recentJobs());
+    }
 }
@@ -1,6 +1,7 @@
 package com.anish.e_commerce.controller;
 
 import com.anish.e_commerce.jwt.JwtUtil;
+import com.anish.e_commerce.jwt.TokenVersions;
 import com.anish.e_commerce.model.RefreshToken;
 import com.anish.e_commerce.model.User;
 import com.anish.e_commerce.repo.UserRepo;
@@ -26,6 +27,7 @@ public class AuthController {
     private final AuthenticationManager authManager;
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
+    private final TokenVersions tokenVersions;
 
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@Valid @RequestBody AuthRequest request) {
@@ -66,7 +68,8 @@ public class AuthController {
                 .orElseThrow();
             String token = jwtUtil.generateToken(
                 user.getUsername(),
-                user.getRoles()
+                user.getRoles(),
+                tokenVersions.forIssue(user.getUsername())
             );
             RefreshToken refreshToken = refreshTokenService.createRefreshToken(
                 user.getId()
@@ -98,7 +101,8 @@ public class AuthController {
                     .orElseThrow(() -> new RuntimeException("User not found"));
                 String token = jwtUtil.generateToken(
                     user.getUsername(),
-                    user.getRoles()
+                    user.getRoles(),
+                    tokenVersions.forIssue(user.getUsername())
                 );
                 Map<String, Object> res = new HashMap<>();
                 res.put("token", token);
@@ -120,6 +124,11 @@ public class AuthController {
     public ResponseEntity<?> logout(
         @Valid @RequestBody TokenRefreshRequest request
     ) {
+        // Access tokens already handed out stop working too
+        refreshTokenService
+            .findByToken(request.getRefreshToken())
+            .flatMap(refreshToken -> repo.findById(refreshToken.getUserId()))
+            .ifPresent(user -> tokenVersions.bump(user.getUsername()));
         refreshTokenService.deleteByToken(request.getRefreshToken());
         return ResponseEntity.ok(Map.of("message", "Log out successful"));
     }
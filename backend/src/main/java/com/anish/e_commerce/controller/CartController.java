@@ -1,12 +1,17 @@
 package com.anish.e_commerce.controller;
 
 import com.anish.e_commerce.dto.CartItemResponse;
+import com.anish.e_commerce.dto.CartMutationRequest;
 import com.anish.e_commerce.service.CartService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +23,20 @@ public class CartController {
 
     private final CartService cartService;
 
+    // Several quantity edits in one round trip, for the signed-in user
+    @PatchMapping
+    public ResponseEntity<List<CartItemResponse>> applyMutations(
+        @RequestBody @NotEmpty @Size(
+            max = 100,
+            message = "At most 100 cart changes per request"
+        ) List<@Valid CartMutationRequest> mutations,
+        Authentication authentication
+    ) {
+        return ResponseEntity.ok(
+            cartService.applyMutations(authentication.getName(), mutations)
+        );
+    }
+
     @GetMapping("/{username}")
     public ResponseEntity<List<CartItemResponse>> getCartItems(
         @PathVariable String username
@@ -0,0 +1,26 @@
+package com.anish.e_commerce.controller;
+
+import com.anish.e_commerce.jwt.JwtKeyring;
+import java.time.Duration;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Public keys for verifying access tokens outside this service; HS256 keys
+// are secrets and never appear here
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyring keyring;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+            .body(keyring.jwks());
+    }
+}
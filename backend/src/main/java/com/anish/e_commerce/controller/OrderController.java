@@ -1,8 +1,10 @@
 package com.anish.e_commerce.controller;
 
+import com.anish.e_commerce.dto.OrderDetailResponse;
+import com.anish.e_commerce.dto.OrderSummaryResponse;
+import com.anish.e_commerce.dto.SliceResponse;
 import com.anish.e_commerce.model.Order;
 import com.anish.e_commerce.service.OrderService;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -22,11 +24,23 @@ public class OrderController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<Order>> getOrderHistory(
+    public ResponseEntity<SliceResponse<OrderSummaryResponse>> getOrderHistory(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "10") int size,
         Authentication authentication
     ) {
         return ResponseEntity.ok(
-            orderService.getUserOrders(authentication.getName())
+            orderService.getUserOrders(authentication.getName(), page, size)
+        );
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderDetailResponse> getOrder(
+        @PathVariable Long id,
+        Authentication authentication
+    ) {
+        return ResponseEntity.ok(
+            orderService.getOrderDetail(authentication.getName(), id)
         );
     }
 }
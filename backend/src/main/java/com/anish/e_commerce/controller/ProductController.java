@@ -1,9 +1,17 @@
 package com.anish.e_commerce.controller;
 
+import com.anish.e_commerce.dto.CatalogSearchResponse;
+import com.anish.e_commerce.dto.CursorPage;
+import com.anish.e_commerce.dto.ProductCardResponse;
 import com.anish.e_commerce.dto.ProductDTO;
+import com.anish.e_commerce.dto.ProductSuggestion;
+import com.anish.e_commerce.dto.SliceResponse;
+import com.anish.e_commerce.dto.TrendingProductResponse;
 import com.anish.e_commerce.model.Product;
 import com.anish.e_commerce.service.ImageHandleService;
+import com.anish.e_commerce.search.CatalogIndex;
 import com.anish.e_commerce.service.ProductService;
+import com.anish.e_commerce.service.TrendingService;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.Date;
@@ -23,16 +31,44 @@ public class ProductController {
 
     private final ProductService productService;
     private final ImageHandleService imageHandleService;
+    private final CatalogIndex catalogIndex;
+    private final TrendingService trendingService;
 
     @GetMapping("/products")
-    public ResponseEntity<Page<Product>> getAllProducts(
+    public ResponseEntity<Page<ProductCardResponse>> getAllProducts(
         @RequestParam(defaultValue = "0") int page, // Default to page 0 (Spring is 0-indexed)
         @RequestParam(defaultValue = "12") int size // Default to 12 items per page
     ) {
-        Page<Product> productPage = productService.getAllProducts(page, size);
+        Page<ProductCardResponse> productPage = productService.getAllProducts(
+            page,
+            size
+        );
         return new ResponseEntity<>(productPage, HttpStatus.OK);
     }
 
+    @GetMapping("/products/scroll")
+    public ResponseEntity<CursorPage<ProductCardResponse>> scrollProducts(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "12") int size,
+        @RequestParam(defaultValue = "newest") String sort // "newest" or "price"
+    ) {
+        return ResponseEntity.ok(
+            productService.scrollProducts(cursor, size, sort)
+        );
+    }
+
+    // Best sellers over a sliding window: 1h, 24h or 7d
+    @GetMapping("/products/trending")
+    public ResponseEntity<List<TrendingProductResponse>> getTrending(
+        @RequestParam(defaultValue = "24h") String window,
+        @RequestParam(required = false) Product.ProductCategory category,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(
+            trendingService.getTrending(window, category, limit)
+        );
+    }
+
     @GetMapping("/product/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable int id) {
         if (id <= 0) return ResponseEntity.badRequest().build();
@@ -44,13 +80,15 @@ public class ProductController {
     }
 
     @GetMapping("/products/filter")
-    public ResponseEntity<List<Product>> filterProducts(
+    public ResponseEntity<SliceResponse<ProductCardResponse>> filterProducts(
         @RequestParam(required = false) String keyword,
         @RequestParam(required = false) Product.ProductCategory category,
         @RequestParam(required = false) BigDecimal minPrice,
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(required = false) Boolean available,
-        @RequestParam(defaultValue = "asc") String sort
+        @RequestParam(defaultValue = "asc") String sort,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "12") int size // Capped at 100 per page
     ) {
         return ResponseEntity.ok(
             productService.getFilteredProducts(
@@ -59,7 +97,35 @@ public class ProductController {
                 minPrice,
                 maxPrice,
                 available,
-                sort
+                sort,
+                page,
+                size
+            )
+        );
+    }
+
+    // Same filters as /products/filter, answered from the in-memory index with facet counts
+    @GetMapping("/products/browse")
+    public ResponseEntity<CatalogSearchResponse> browseProducts(
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) Product.ProductCategory category,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @RequestParam(required = false) Boolean available,
+        @RequestParam(defaultValue = "asc") String sort,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "12") int size
+    ) {
+        return ResponseEntity.ok(
+            catalogIndex.search(
+                keyword,
+                category,
+                minPrice,
+                maxPrice,
+                available,
+                sort,
+                page,
+                size
             )
         );
     }
@@ -138,12 +204,21 @@ public class ProductController {
     }
 
     @GetMapping("/products/search")
-    public ResponseEntity<List<Product>> searchProducts(
+    public ResponseEntity<List<ProductCardResponse>> searchProducts(
         @RequestParam("keyword") String keyword
     ) {
         return ResponseEntity.ok(productService.searchProducts(keyword));
     }
 
+    // Lightweight type-ahead: id/name/imageUrl only, typo tolerant
+    @GetMapping("/products/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+        @RequestParam("q") String query,
+        @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(catalogIndex.suggest(query, limit));
+    }
+
     @PostMapping("/upload-image")
     public ResponseEntity<String> uploadImage(
         @RequestParam("image") MultipartFile image
@@ -1,9 +1,11 @@
 package com.anish.e_commerce.controller;
 
-import com.anish.e_commerce.model.Notification;
+import com.anish.e_commerce.dto.CursorPage;
+import com.anish.e_commerce.dto.NotificationResponse;
 import com.anish.e_commerce.model.Product;
 import com.anish.e_commerce.model.User;
 import com.anish.e_commerce.model.Wishlist;
+import com.anish.e_commerce.notification.NotificationHub;
 import com.anish.e_commerce.repo.ProductRepo;
 import com.anish.e_commerce.repo.UserRepo;
 import com.anish.e_commerce.repo.WishlistRepo;
@@ -12,9 +14,11 @@ import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.Map; // Added Map import
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/user")
@@ -25,6 +29,7 @@ public class UserController {
     private final UserRepo userRepo;
     private final ProductRepo productRepo;
     private final NotificationService notificationService;
+    private final NotificationHub notificationHub;
 
     // Helper to get logged-in user
     private User getCurrentUser(Authentication auth) {
@@ -64,19 +69,57 @@ public class UserController {
     }
 
     @GetMapping("/notifications")
-    public ResponseEntity<List<Notification>> getNotifications(
+    public ResponseEntity<CursorPage<NotificationResponse>> getNotifications(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size,
         Authentication auth
     ) {
         return ResponseEntity.ok(
             notificationService.getUserNotifications(
-                getCurrentUser(auth).getId()
+                getCurrentUser(auth).getId(),
+                cursor,
+                size
             )
         );
     }
 
+    @GetMapping("/notifications/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(
+        Authentication auth
+    ) {
+        return ResponseEntity.ok(
+            Map.of(
+                "count",
+                notificationService.getUnreadCount(getCurrentUser(auth).getId())
+            )
+        );
+    }
+
+    // New notifications are pushed here instead of being polled for
+    @GetMapping(
+        value = "/notifications/stream",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter streamNotifications(Authentication auth) {
+        return notificationHub.subscribe(getCurrentUser(auth).getId());
+    }
+
     @PutMapping("/notifications/{id}/read")
-    public ResponseEntity<Void> markNotificationRead(@PathVariable Long id) {
-        notificationService.markAsRead(id);
+    public ResponseEntity<Void> markNotificationRead(
+        @PathVariable Long id,
+        Authentication auth
+    ) {
+        notificationService.markAsRead(getCurrentUser(auth).getId(), id);
         return ResponseEntity.ok().build();
     }
+
+    @PutMapping("/notifications/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllNotificationsRead(
+        Authentication auth
+    ) {
+        int updated = notificationService.markAllAsRead(
+            getCurrentUser(auth).getId()
+        );
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
 }
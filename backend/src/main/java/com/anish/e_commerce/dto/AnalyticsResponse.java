@@ -0,0 +1,35 @@
+package com.anish.e_commerce.dto;
+
+import com.anish.e_commerce.model.Product.ProductCategory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnalyticsResponse {
+
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Point> series; // One entry per bucket, oldest first
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Point {
+
+        private LocalDateTime bucket;
+        private long orders;
+        private BigDecimal revenue;
+        private BigDecimal averageBasket;
+        private long units;
+        private Map<ProductCategory, Long> unitsByCategory;
+    }
+}
@@ -0,0 +1,21 @@
+package com.anish.e_commerce.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a batched cart edit; quantity 0 removes the product
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartMutationRequest {
+
+    @NotNull(message = "Product ID is required")
+    private Integer productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity;
+}
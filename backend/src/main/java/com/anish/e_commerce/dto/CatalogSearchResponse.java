@@ -0,0 +1,31 @@
+package com.anish.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogSearchResponse {
+
+    private List<ProductCardResponse> content;
+    private long totalElements;
+    private int page;
+    private int size;
+    private Map<String, Long> categoryFacets;
+    private List<PriceFacet> priceFacets;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PriceFacet {
+
+        private BigDecimal min;
+        private BigDecimal max; // null for the open-ended top bucket
+        private long count;
+    }
+}
@@ -0,0 +1,16 @@
+package com.anish.e_commerce.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor; // Opaque; pass back as ?cursor= for the next slice
+    private boolean hasNext;
+}
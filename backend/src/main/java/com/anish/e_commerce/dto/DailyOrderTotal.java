@@ -0,0 +1,10 @@
+package com.anish.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyOrderTotal(
+    LocalDate day,
+    long orders,
+    BigDecimal revenue
+) {}
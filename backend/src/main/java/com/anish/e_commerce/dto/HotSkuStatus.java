@@ -0,0 +1,16 @@
+package com.anish.e_commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotSkuStatus {
+
+    private int productId;
+    private long stock; // Sellable right now
+    private long reserved; // Held for unpaid orders
+    private long unflushedSold; // Paid but not yet written to Product.quantity
+}
@@ -0,0 +1,27 @@
+package com.anish.e_commerce.dto;
+
+import com.anish.e_commerce.model.Notification;
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationResponse {
+
+    private Long id;
+    private String message;
+    private boolean read;
+    private Date createdAt;
+
+    public static NotificationResponse from(Notification notification) {
+        return new NotificationResponse(
+            notification.getId(),
+            notification.getMessage(),
+            notification.isRead(),
+            notification.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package com.anish.e_commerce.dto;
+
+import com.anish.e_commerce.model.Order;
+import com.anish.e_commerce.model.OrderItem;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderDetailResponse {
+
+    private Long id;
+    private LocalDateTime createdAt;
+    private String status;
+    private BigDecimal totalAmount;
+    private List<Line> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Line {
+
+        private Long id;
+        private int productId;
+        private String name;
+        private String imageUrl;
+        private int quantity;
+        private BigDecimal priceAtPurchase;
+    }
+
+    public static OrderDetailResponse from(Order order) {
+        return new OrderDetailResponse(
+            order.getId(),
+            order.getCreatedAt(),
+            order.getStatus(),
+            order.getTotalAmount(),
+            order.getItems().stream().map(OrderDetailResponse::line).toList()
+        );
+    }
+
+    private static Line line(OrderItem item) {
+        return new Line(
+            item.getId(),
+            item.getProduct().getId(),
+            item.getProduct().getName(),
+            item.getProduct().getImageUrl(),
+            item.getQuantity(),
+            item.getPriceAtPurchase()
+        );
+    }
+}
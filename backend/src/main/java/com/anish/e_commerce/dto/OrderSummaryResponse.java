@@ -0,0 +1,20 @@
+package com.anish.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of the order history; lines are loaded only for the detail view
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummaryResponse {
+
+    private Long id;
+    private LocalDateTime createdAt;
+    private String status;
+    private BigDecimal totalAmount;
+    private long itemCount;
+}
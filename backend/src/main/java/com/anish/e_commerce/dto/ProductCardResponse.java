@@ -0,0 +1,39 @@
+package com.anish.e_commerce.dto;
+
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a product grid tile needs; full details live behind /api/product/{id}
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCardResponse implements Serializable {
+
+    private int id;
+    private String name;
+    private String brand;
+    private BigDecimal price;
+    private String imageUrl;
+    private boolean available;
+    private ProductCategory category;
+    private Date createdAt; // Also the seek key when scrolling newest first
+
+    public static ProductCardResponse from(Product product) {
+        return new ProductCardResponse(
+            product.getId(),
+            product.getName(),
+            product.getBrand(),
+            product.getPrice(),
+            product.getImageUrl(),
+            product.isAvailable(),
+            product.getCategory(),
+            product.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.anish.e_commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSuggestion {
+
+    private int id;
+    private String name;
+    private String imageUrl;
+}
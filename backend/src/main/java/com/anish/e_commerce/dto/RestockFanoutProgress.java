@@ -0,0 +1,20 @@
+package com.anish.e_commerce.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestockFanoutProgress {
+
+    private String jobId;
+    private int productId;
+    private String productName;
+    private String status; // RUNNING, DONE or FAILED
+    private long notified;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.anish.e_commerce.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SliceResponse<T> implements Serializable {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
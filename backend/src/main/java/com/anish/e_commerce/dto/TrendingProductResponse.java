@@ -0,0 +1,15 @@
+package com.anish.e_commerce.dto;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingProductResponse implements Serializable {
+
+    private ProductCardResponse product;
+    private long unitsSold;
+}
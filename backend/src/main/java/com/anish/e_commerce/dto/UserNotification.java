@@ -0,0 +1,6 @@
+package com.anish.e_commerce.dto;
+
+public record UserNotification(
+    long userId,
+    NotificationResponse notification
+) {}
@@ -0,0 +1,48 @@
+package com.anish.e_commerce.event;
+
+import com.anish.e_commerce.model.Order;
+import com.anish.e_commerce.model.OrderItem;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Published once per order, inside the transaction that marks it paid
+public record OrderCompletedEvent(
+    long orderId,
+    LocalDateTime placedAt,
+    BigDecimal totalAmount,
+    List<Line> lines
+) {
+    public record Line(
+        int productId,
+        ProductCategory category,
+        int quantity,
+        BigDecimal amount
+    ) {}
+
+    public static OrderCompletedEvent of(Order order) {
+        List<Line> lines = order
+            .getItems()
+            .stream()
+            .map(OrderCompletedEvent::line)
+            .toList();
+        return new OrderCompletedEvent(
+            order.getId(),
+            order.getCreatedAt(),
+            order.getTotalAmount(),
+            lines
+        );
+    }
+
+    private static Line line(OrderItem item) {
+        return new Line(
+            item.getProduct().getId(),
+            item.getProduct().getCategory(),
+            item.getQuantity(),
+            item
+                .getPriceAtPurchase()
+                .multiply(BigDecimal.valueOf(item.getQuantity()))
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.anish.e_commerce.event;
+
+public record ProductChangedEvent(int productId, Type type) {
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED,
+    }
+}
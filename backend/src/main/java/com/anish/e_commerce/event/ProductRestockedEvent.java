@@ -0,0 +1,3 @@
+package com.anish.e_commerce.event;
+
+public record ProductRestockedEvent(int productId, String productName) {}
@@ -0,0 +1,6 @@
+package com.anish.e_commerce.event;
+
+import java.util.Set;
+
+// One event per checkout, payment or sweep, however many products it moved
+public record StockChangedEvent(Set<Integer> productIds) {}
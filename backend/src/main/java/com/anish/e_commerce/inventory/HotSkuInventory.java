@@ -0,0 +1,322 @@
+package com.anish.e_commerce.inventory;
+
+import com.anish.e_commerce.dto.HotSkuStatus;
+import com.anish.e_commerce.event.StockChangedEvent;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.StockReservation;
+import com.anish.e_commerce.repo.ProductRepo;
+import com.anish.e_commerce.repo.StockReservationRepo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Flash-sale mode: stock for flagged products is counted in one Redis hash
+// per product so checkouts stop queueing on the same Postgres row. Postgres
+// keeps "available + held" and is caught up with committed sales in batches.
+//
+//   inventory:sku:{id} -> stock (sellable), reserved (held), sold (not flushed)
+@Slf4j
+@Component
+public class HotSkuInventory {
+
+    private static final String HOT_KEY = "inventory:hot";
+    private static final String SKU_KEY_PREFIX = "inventory:sku:";
+
+    public static final long NOT_TRACKED = -1;
+
+    // -1: not tracked (use Postgres), 0: not enough stock, 1: held
+    private static final RedisScript<Long> RESERVE = script(
+        "local stock = tonumber(redis.call('HGET', KEYS[1], 'stock')) " +
+            "if not stock then return -1 end " +
+            "local n = tonumber(ARGV[1]) " +
+            "if stock < n then return 0 end " +
+            "redis.call('HINCRBY', KEYS[1], 'stock', -n) " +
+            "redis.call('HINCRBY', KEYS[1], 'reserved', n) " +
+            "return 1"
+    );
+
+    // Moves n units from ARGV[1] to ARGV[2]; used for commit and release
+    private static final RedisScript<Long> MOVE = script(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local n = tonumber(ARGV[3]) " +
+            "redis.call('HINCRBY', KEYS[1], ARGV[1], -n) " +
+            "redis.call('HINCRBY', KEYS[1], ARGV[2], n) " +
+            "return 1"
+    );
+
+    private static final RedisScript<Long> TAKE_SOLD = script(
+        "local sold = tonumber(redis.call('HGET', KEYS[1], 'sold') or '0') " +
+            "if sold ~= 0 then " +
+            "redis.call('HINCRBY', KEYS[1], 'sold', -sold) " +
+            "end " +
+            "return sold"
+    );
+
+    // Admin edits set sellable stock outright; returns the units still held
+    private static final RedisScript<Long> RESEED = script(
+        "redis.call('HSET', KEYS[1], 'stock', ARGV[1], 'sold', 0) " +
+            "return tonumber(redis.call('HGET', KEYS[1], 'reserved') or '0')"
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepo productRepo;
+    private final StockReservationRepo reservationRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public HotSkuInventory(
+        StringRedisTemplate redisTemplate,
+        ProductRepo productRepo,
+        StockReservationRepo reservationRepo,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager,
+        @Value("${inventory.hot-sku.enabled:false}") boolean enabled
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.productRepo = productRepo;
+        this.reservationRepo = reservationRepo;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    public boolean isHot(int productId) {
+        return (
+            enabled &&
+            Boolean.TRUE.equals(
+                redisTemplate
+                    .opsForSet()
+                    .isMember(HOT_KEY, String.valueOf(productId))
+            )
+        );
+    }
+
+    // 1 when held, 0 when short, NOT_TRACKED when Postgres should decide
+    public long reserve(int productId, int quantity) {
+        long result = run(RESERVE, productId, String.valueOf(quantity));
+        if (result == 1) {
+            onRollback(() -> move(productId, "reserved", "stock", quantity));
+        }
+        return result;
+    }
+
+    public boolean commit(int productId, int quantity) {
+        boolean moved = move(productId, "reserved", "sold", quantity);
+        if (moved) {
+            onRollback(() -> move(productId, "sold", "reserved", quantity));
+        }
+        return moved;
+    }
+
+    public boolean release(int productId, int quantity) {
+        boolean moved = move(productId, "reserved", "stock", quantity);
+        if (moved) {
+            onRollback(() -> move(productId, "stock", "reserved", quantity));
+        }
+        return moved;
+    }
+
+    public void flag(int productId) {
+        requireEnabled();
+        Product product = productRepo
+            .findById(productId)
+            .orElseThrow(() ->
+                new RuntimeException("Product not found with id: " + productId)
+            );
+
+        // Seed first so no checkout sees the flag without a counter behind it
+        String key = skuKey(productId);
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            redisTemplate
+                .opsForHash()
+                .putAll(
+                    key,
+                    Map.of(
+                        "stock",
+                        String.valueOf(product.getQuantity()),
+                        "reserved",
+                        "0",
+                        "sold",
+                        "0"
+                    )
+                );
+        }
+        redisTemplate.opsForSet().add(HOT_KEY, String.valueOf(productId));
+    }
+
+    public void unflag(int productId) {
+        requireEnabled();
+        redisTemplate.opsForSet().remove(HOT_KEY, String.valueOf(productId));
+        flush(productId);
+
+        // Holds still open in Redis become ordinary Postgres holds
+        long reserved = hashValue(productId, "reserved");
+        transactionTemplate.executeWithoutResult(status -> {
+            if (reserved > 0) {
+                productRepo.deductStock(productId, (int) reserved);
+            }
+            reservationRepo.updateSource(
+                productId,
+                StockReservation.Status.ACTIVE,
+                StockReservation.Source.REDIS,
+                StockReservation.Source.DATABASE
+            );
+        });
+        redisTemplate.delete(skuKey(productId));
+        eventPublisher.publishEvent(new StockChangedEvent(Set.of(productId)));
+    }
+
+    // Called after an admin edit has written the new quantity to Postgres
+    public void reseed(int productId, int quantity) {
+        if (!isHot(productId)) {
+            return;
+        }
+        Long reserved = redisTemplate.execute(
+            RESEED,
+            List.of(skuKey(productId)),
+            String.valueOf(quantity)
+        );
+
+        // Postgres keeps held units on top of what can still be sold
+        if (reserved != null && reserved > 0) {
+            transactionTemplate.executeWithoutResult(status ->
+                productRepo.releaseStock(productId, reserved.intValue())
+            );
+        }
+    }
+
+    public List<HotSkuStatus> status() {
+        List<HotSkuStatus> result = new ArrayList<>();
+        for (int productId : hotProductIds()) {
+            result.add(
+                new HotSkuStatus(
+                    productId,
+                    hashValue(productId, "stock"),
+                    hashValue(productId, "reserved"),
+                    hashValue(productId, "sold")
+                )
+            );
+        }
+        return result;
+    }
+
+    @Scheduled(
+        fixedDelayString = "${inventory.hot-sku.reconcile-interval:5s}"
+    )
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        Set<Integer> flushed = new TreeSet<>();
+        for (int productId : hotProductIds()) {
+            if (flush(productId)) {
+                flushed.add(productId);
+            }
+        }
+        if (!flushed.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(flushed));
+        }
+    }
+
+    // Writes committed sales back to Product.quantity in one statement
+    private boolean flush(int productId) {
+        Long sold = redisTemplate.execute(
+            TAKE_SOLD,
+            List.of(skuKey(productId))
+        );
+        if (sold == null || sold == 0) {
+            return false;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                productRepo.deductStock(productId, sold.intValue())
+            );
+            return true;
+        } catch (RuntimeException e) {
+            // Put the delta back so the next run retries it
+            redisTemplate
+                .opsForHash()
+                .increment(skuKey(productId), "sold", sold);
+            log.warn("Failed to reconcile hot SKU {}", productId, e);
+            return false;
+        }
+    }
+
+    private boolean move(int productId, String from, String to, int quantity) {
+        return (
+            run(MOVE, productId, from, to, String.valueOf(quantity)) == 1
+        );
+    }
+
+    private long run(RedisScript<Long> script, int productId, String... args) {
+        Long result = redisTemplate.execute(
+            script,
+            List.of(skuKey(productId)),
+            (Object[]) args
+        );
+        return result != null ? result : NOT_TRACKED;
+    }
+
+    // Redis does not take part in the JPA transaction, so undo by hand
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        compensation.run();
+                    }
+                }
+            }
+        );
+    }
+
+    private Set<Integer> hotProductIds() {
+        Set<String> members = redisTemplate.opsForSet().members(HOT_KEY);
+        Set<Integer> ids = new TreeSet<>();
+        if (members != null) {
+            members.forEach(id -> ids.add(Integer.parseInt(id)));
+        }
+        return ids;
+    }
+
+    private long hashValue(int productId, String field) {
+        Object value = redisTemplate
+            .opsForHash()
+            .get(skuKey(productId), field);
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new RuntimeException("Hot SKU inventory is not enabled");
+        }
+    }
+
+    private static String skuKey(int productId) {
+        return SKU_KEY_PREFIX + productId;
+    }
+
+    private static RedisScript<Long> script(String source) {
+        return new DefaultRedisScript<>(source, Long.class);
+    }
+}
@@ -1,13 +1,10 @@
 package com.anish.e_commerce.jwt;
 
-import com.anish.e_commerce.service.UserDetailsServiceImpl;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,7 +13,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtPrincipalResolver principalResolver;
 
     @Override
     protected void doFilterInternal(
@@ -25,34 +22,20 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         FilterChain filterChain
     ) throws ServletException, IOException {
         String header = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-
-        if (header != null && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            try {
-                username = jwtUtil.extractUsername(token);
-            } catch (Exception e) {
-                // Ignore expired or invalid tokens
-            }
-        }
 
+        // Expired or invalid tokens are ignored; the request stays anonymous
         if (
-            username != null &&
+            header != null &&
+            header.startsWith("Bearer ") &&
             SecurityContextHolder.getContext().getAuthentication() == null
         ) {
-            if (jwtUtil.isTokenValid(token)) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(
-                    username
+            jwtUtil
+                .parse(header.substring(7))
+                .filter(claims -> claims.username() != null)
+                .map(principalResolver::authenticate)
+                .ifPresent(auth ->
+                    SecurityContextHolder.getContext().setAuthentication(auth)
                 );
-                UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                    );
-                SecurityContextHolder.getContext().setAuthentication(auth);
-            }
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,231 @@
+package com.anish.e_commerce.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Keys by kid. The current key signs; every configured key verifies until
+// its verify-until, so rotating is: add the new key, make it current, and
+// give the old one a grace window at least as long as a token lives.
+@Slf4j
+@Component
+public class JwtKeyring {
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Entry current;
+    private final Entry legacy; // Null when tokens without a kid are refused
+
+    public JwtKeyring(
+        JwtKeyringProperties properties,
+        @Value("${jwt.secret:}") String secret
+    ) {
+        for (JwtKeyringProperties.Key key : properties.getKeys()) {
+            Entry entry = entry(key);
+            if (entries.putIfAbsent(entry.kid(), entry) != null) {
+                throw new IllegalStateException(
+                    "Duplicate JWT key id: " + entry.kid()
+                );
+            }
+        }
+
+        if (entries.isEmpty()) {
+            this.current = legacyKey(secret, null);
+            this.legacy = current;
+            return;
+        }
+        this.current = entries.get(properties.getCurrent());
+        if (current == null || current.signingKey() == null) {
+            throw new IllegalStateException(
+                "jwt.keyring.current must name a key that can sign"
+            );
+        }
+        this.legacy = secret == null || secret.trim().length() < 32
+            ? null
+            : legacyKey(secret, properties.getLegacyUntil());
+    }
+
+    public Signer signer() {
+        return new Signer(current.kid(), current.signingKey(), current.alg());
+    }
+
+    // Picks the verification key from the token's kid header
+    public SigningKeyResolverAdapter resolver() {
+        return new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Entry entry = header.getKeyId() == null
+                    ? legacy
+                    : entries.get(header.getKeyId());
+                if (entry == null || !entry.verifies(Instant.now())) {
+                    throw new JwtException(
+                        "Unknown or retired signing key: " + header.getKeyId()
+                    );
+                }
+                // The header must not pick a different algorithm for a key
+                if (!entry.alg().getValue().equals(header.getAlgorithm())) {
+                    throw new JwtException(
+                        "Unexpected algorithm for key " + header.getKeyId()
+                    );
+                }
+                return entry.verificationKey();
+            }
+        };
+    }
+
+    // When a token signed with this kid stops verifying, null for never
+    public Instant verifyUntil(String kid) {
+        Entry entry = kid == null ? legacy : entries.get(kid);
+        return entry != null ? entry.verifyUntil() : null;
+    }
+
+    // Public halves of the asymmetric keys still verifying, as a JWK Set,
+    // so other services can check tokens without any shared secret
+    public Map<String, Object> jwks() {
+        Instant now = Instant.now();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (
+                entry.verificationKey() instanceof ECPublicKey ec &&
+                entry.verifies(now)
+            ) {
+                Map<String, Object> jwk = new LinkedHashMap<>();
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", coordinate(ec.getW().getAffineX()));
+                jwk.put("y", coordinate(ec.getW().getAffineY()));
+                jwk.put("kid", entry.kid());
+                jwk.put("alg", entry.alg().getValue());
+                jwk.put("use", "sig");
+                keys.add(jwk);
+            }
+        }
+        return Map.of("keys", keys);
+    }
+
+    private static Entry legacyKey(String secret, Instant legacyUntil) {
+        if (secret == null || secret.trim().isEmpty() || secret.length() < 32) {
+            log.warn(
+                "⚠️ JWT secret is missing or too short. Using generated secure key for dev only!"
+            );
+            Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            return new Entry(null, SignatureAlgorithm.HS256, key, key, null);
+        }
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new Entry(
+            null,
+            SignatureAlgorithm.HS256,
+            key,
+            key,
+            legacyUntil
+        );
+    }
+
+    private static Entry entry(JwtKeyringProperties.Key key) {
+        if (key.getKid() == null || key.getKid().isBlank()) {
+            throw new IllegalStateException("Every JWT key needs a kid");
+        }
+        try {
+            return switch (key.getAlgorithm().toUpperCase()) {
+                case "HS256" -> {
+                    Key secret = Keys.hmacShaKeyFor(
+                        key.getSecret().getBytes(StandardCharsets.UTF_8)
+                    );
+                    yield new Entry(
+                        key.getKid(),
+                        SignatureAlgorithm.HS256,
+                        secret,
+                        secret,
+                        key.getVerifyUntil()
+                    );
+                }
+                case "ES256" -> {
+                    KeyFactory factory = KeyFactory.getInstance("EC");
+                    Key privateKey = key.getPrivateKey() == null
+                        ? null
+                        : factory.generatePrivate(
+                            new PKCS8EncodedKeySpec(
+                                Base64.getDecoder().decode(key.getPrivateKey())
+                            )
+                        );
+                    ECPublicKey publicKey =
+                        (ECPublicKey) factory.generatePublic(
+                            new X509EncodedKeySpec(
+                                Base64.getDecoder().decode(key.getPublicKey())
+                            )
+                        );
+                    if (publicKey.getParams().getOrder().bitLength() != 256) {
+                        throw new IllegalStateException("ES256 needs P-256");
+                    }
+                    yield new Entry(
+                        key.getKid(),
+                        SignatureAlgorithm.ES256,
+                        privateKey,
+                        publicKey,
+                        key.getVerifyUntil()
+                    );
+                }
+                default -> throw new IllegalStateException(
+                    "Unsupported JWT algorithm " +
+                        key.getAlgorithm() +
+                        " for key " +
+                        key.getKid()
+                );
+            };
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException(
+                "Invalid JWT key " + key.getKid(),
+                e
+            );
+        }
+    }
+
+    // JWK coordinates are fixed-width unsigned big-endian, base64url
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(
+            bytes,
+            bytes.length - length,
+            fixed,
+            32 - length,
+            length
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    public record Signer(String kid, Key key, SignatureAlgorithm alg) {}
+
+    private record Entry(
+        String kid,
+        SignatureAlgorithm alg,
+        Key signingKey,
+        Key verificationKey,
+        Instant verifyUntil
+    ) {
+        boolean verifies(Instant now) {
+            return verifyUntil == null || now.isBefore(verifyUntil);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.anish.e_commerce.jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// jwt.keyring.*: signing keys by kid. Empty means the legacy single
+// jwt.secret signs and verifies everything, without a kid header.
+@Data
+@ConfigurationProperties(prefix = "jwt.keyring")
+public class JwtKeyringProperties {
+
+    // Kid of the key new tokens are signed with
+    private String current;
+
+    private List<Key> keys = new ArrayList<>();
+
+    // Tokens without a kid (signed with jwt.secret) are accepted until then
+    private Instant legacyUntil;
+
+    @Data
+    public static class Key {
+
+        private String kid;
+
+        // HS256 or ES256
+        private String algorithm = "HS256";
+
+        // HS256 only, at least 32 bytes
+        private String secret;
+
+        // ES256 only, base64 DER: PKCS#8 private key (only needed to sign)
+        // and X.509 public key (published in the JWKS)
+        private String privateKey;
+        private String publicKey;
+
+        // Grace window: a retired key still verifies tokens until then
+        private Instant verifyUntil;
+    }
+}
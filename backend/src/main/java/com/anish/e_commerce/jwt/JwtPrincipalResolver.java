@@ -0,0 +1,88 @@
+package com.anish.e_commerce.jwt;
+
+import com.anish.e_commerce.jwt.JwtUtil.TokenClaims;
+import com.anish.e_commerce.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+// Turns a verified access token into an Authentication. In "claims" mode the
+// authorities come from the token's roles claim and no query is made; in
+// "database" mode the user is loaded, optionally cached for a short while.
+// Either way, tokens older than the user's current version are refused.
+@Component
+public class JwtPrincipalResolver {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersions tokenVersions;
+    private final boolean fromClaims;
+    private final Cache<String, UserDetails> principals; // Null when disabled
+
+    public JwtPrincipalResolver(
+        UserDetailsServiceImpl userDetailsService,
+        TokenVersions tokenVersions,
+        @Value("${jwt.principal-mode:database}") String mode,
+        @Value("${jwt.principal-cache-ttl:0s}") Duration cacheTtl
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.tokenVersions = tokenVersions;
+        this.fromClaims = "claims".equalsIgnoreCase(mode);
+        this.principals = cacheTtl.isZero()
+            ? null
+            : Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // Null when the token was issued before a logout or role change, or
+    // its version cannot be checked
+    public UsernamePasswordAuthenticationToken authenticate(
+        TokenClaims claims
+    ) {
+        String username = claims.username();
+        OptionalLong version = tokenVersions.current(username);
+        if (version.isEmpty() || claims.version() < version.getAsLong()) {
+            return null;
+        }
+        UserDetails principal = fromClaims
+            ? principal(username, claims.roles())
+            : load(username, version.getAsLong());
+        return new UsernamePasswordAuthenticationToken(
+            principal,
+            null,
+            principal.getAuthorities()
+        );
+    }
+
+    // Keyed by version too, so a bump also retires the cached principal
+    private UserDetails load(String username, long version) {
+        if (principals == null) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        return principals.get(username + ":" + version, key -> {
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            // Only the authorities are kept, never the password hash
+            return new User(user.getUsername(), "", user.getAuthorities());
+        });
+    }
+
+    private static UserDetails principal(String username, List<String> roles) {
+        return new User(
+            username,
+            "",
+            roles
+                .stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList()
+        );
+    }
+}
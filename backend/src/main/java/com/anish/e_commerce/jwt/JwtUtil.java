@@ -1,81 +1,169 @@
 package com.anish.e_commerce.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
-@Slf4j
 public class JwtUtil {
 
-    private final Key signingKey;
+    private final JwtKeyring keyring;
     private final long expiration;
+    // Immutable once built, so one instance serves every request thread
+    private final JwtParser parser;
+    // Keyed by SHA-256 of the token; entries leave when the token expires
+    // or its signing key retires, whichever comes first
+    private final Cache<String, Verified> verified;
 
     public JwtUtil(
-        @Value("${jwt.secret:}") String secret,
-        @Value("${jwt.expiration}") long expiration
+        JwtKeyring keyring,
+        @Value("${jwt.expiration}") long expiration,
+        @Value("${jwt.verified-cache-size:10000}") long verifiedCacheSize
     ) {
-        if (secret == null || secret.trim().isEmpty() || secret.length() < 32) {
-            log.warn(
-                "⚠️ JWT secret is missing or too short. Using generated secure key for dev only!"
-            );
-            this.signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-        } else {
-            this.signingKey = Keys.hmacShaKeyFor(
-                secret.getBytes(StandardCharsets.UTF_8)
-            );
-        }
+        this.keyring = keyring;
         this.expiration = expiration;
+        this.parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(keyring.resolver())
+            .build();
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfter(new UntilTokenExpiry())
+            .build();
     }
 
-    public String generateToken(String username, Set<String> roles) {
+    public String generateToken(
+        String username,
+        Set<String> roles,
+        long version
+    ) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", roles);
+        claims.put("ver", version);
 
-        return Jwts.builder()
+        JwtKeyring.Signer signer = keyring.signer();
+        JwtBuilder builder = Jwts.builder();
+        if (signer.kid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signer.kid());
+        }
+        return builder
             .setSubject(username)
             .addClaims(claims)
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(signingKey, SignatureAlgorithm.HS256)
+            .signWith(signer.key(), signer.alg())
             .compact();
     }
 
-    public String extractUsername(String token) {
-        return getClaims(token).getSubject();
-    }
+    // Verifies the signature and expiry once and extracts everything the
+    // filter needs; empty for a bad or expired token
+    public Optional<TokenClaims> parse(String token) {
+        String hash = sha256(token);
+        Verified cached = verified.getIfPresent(hash);
+        if (cached != null && cached.until().isAfter(Instant.now())) {
+            return Optional.of(cached.claims());
+        }
 
-    public List<String> extractRoles(String token) {
-        Object roles = getClaims(token).get("roles");
-        if (roles instanceof List<?> list) {
-            return list
-                .stream()
-                .map(Object::toString)
-                .collect(Collectors.toList());
+        try {
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            TokenClaims claims = TokenClaims.of(jws.getBody());
+            // Tokens without an expiry are valid but never cached
+            if (claims.expiresAt() != null) {
+                Instant until = claims.expiresAt();
+                Instant retires = keyring.verifyUntil(
+                    jws.getHeader().getKeyId()
+                );
+                if (retires != null && retires.isBefore(until)) {
+                    until = retires;
+                }
+                verified.put(hash, new Verified(claims, until));
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
-        return List.of();
     }
 
-    public boolean isTokenValid(String token) {
+    private static String sha256(String token) {
         try {
-            getClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                token.getBytes(StandardCharsets.UTF_8)
+            );
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(signingKey)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+    public record TokenClaims(
+        String username,
+        List<String> roles,
+        long version,
+        Instant expiresAt
+    ) {
+        static TokenClaims of(Claims claims) {
+            List<String> roles = List.of();
+            if (claims.get("roles") instanceof List<?> list) {
+                roles = list
+                    .stream()
+                    .map(Object::toString)
+                    .collect(Collectors.toUnmodifiableList());
+            }
+            // Tokens issued before versioning count as version 0
+            Number version = claims.get("ver", Number.class);
+            Date expiresAt = claims.getExpiration();
+            return new TokenClaims(
+                claims.getSubject(),
+                roles,
+                version != null ? version.longValue() : 0,
+                expiresAt != null ? expiresAt.toInstant() : null
+            );
+        }
+    }
+
+    private record Verified(TokenClaims claims, Instant until) {}
+
+    private static final class UntilTokenExpiry
+        implements Expiry<String, Verified> {
+
+        @Override
+        public long expireAfterCreate(
+            String hash,
+            Verified entry,
+            long currentTime
+        ) {
+            long nanos =
+                (entry.until().toEpochMilli() - System.currentTimeMillis()) *
+                1_000_000;
+            return Math.max(nanos, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(
+            String hash,
+            Verified entry,
+            long currentTime,
+            long currentDuration
+        ) {
+            return expireAfterCreate(hash, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+            String hash,
+            Verified entry,
+            long currentTime,
+            long currentDuration
+        ) {
+            return currentDuration;
+        }
     }
 }
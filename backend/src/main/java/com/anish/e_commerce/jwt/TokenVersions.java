@@ -0,0 +1,120 @@
+package com.anish.e_commerce.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.OptionalLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+// Per-user token version: access tokens carry the version they were issued
+// at ("ver"), and bumping it revokes every older token of that user.
+//
+//   auth:ver:{username} -> version (absent means 0)
+@Slf4j
+@Component
+public class TokenVersions implements MessageListener {
+
+    public static final String REVOKED_CHANNEL = "auth:revoked";
+
+    private static final String KEY_PREFIX = "auth:ver:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, Long> versions;
+    // Last version read from Redis, kept longer to ride out an outage
+    private final Cache<String, Long> lastKnown;
+
+    public TokenVersions(
+        StringRedisTemplate redisTemplate,
+        RedisMessageListenerContainer listenerContainer,
+        @Value("${jwt.version-cache-ttl:10s}") Duration cacheTtl,
+        @Value("${jwt.version-fallback-ttl:1h}") Duration fallbackTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.versions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(cacheTtl)
+            .build();
+        this.lastKnown = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(fallbackTtl)
+            .build();
+        listenerContainer.addMessageListener(
+            this,
+            new ChannelTopic(REVOKED_CHANNEL)
+        );
+    }
+
+    // Checked on every request, so served from memory for a few seconds;
+    // other nodes drop their copy as soon as a bump is published. Empty
+    // when Redis is unreachable and there is no version to fall back to
+    public OptionalLong current(String username) {
+        Long version = versions.get(username, this::readOrLastKnown);
+        return version != null
+            ? OptionalLong.of(version)
+            : OptionalLong.empty();
+    }
+
+    // Tokens are stamped with the version as Redis has it, never a cached one
+    public long forIssue(String username) {
+        return read(username);
+    }
+
+    public long bump(String username) {
+        Long version = redisTemplate.opsForValue().increment(key(username));
+        versions.invalidate(username);
+        lastKnown.invalidate(username);
+        try {
+            redisTemplate.convertAndSend(REVOKED_CHANNEL, username);
+        } catch (RuntimeException e) {
+            // Other nodes catch up when their cached version expires
+            log.warn("Failed to publish token revocation for {}", username, e);
+        }
+        return version != null ? version : 0;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String username = new String(
+            message.getBody(),
+            StandardCharsets.UTF_8
+        );
+        versions.invalidate(username);
+        lastKnown.invalidate(username);
+    }
+
+    // Fails open to the last version seen, so an outage logs no one out but
+    // misses bumps made during it; with nothing seen, the token is refused
+    private Long readOrLastKnown(String username) {
+        try {
+            long version = read(username);
+            lastKnown.put(username, version);
+            return version;
+        } catch (RuntimeException e) {
+            Long last = lastKnown.getIfPresent(username);
+            log.warn(
+                "Token version unavailable for {}, {}",
+                username,
+                last != null ? "using last known " + last : "refusing token",
+                e
+            );
+            return last;
+        }
+    }
+
+    private long read(String username) {
+        String version = redisTemplate.opsForValue().get(key(username));
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    private static String key(String username) {
+        return KEY_PREFIX + username;
+    }
+}
@@ -11,7 +11,11 @@ import lombok.*;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "cart_item_seq"
+    )
+    @SequenceGenerator(name = "cart_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -1,5 +1,6 @@
 package com.anish.e_commerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.Date;
 import lombok.Getter;
@@ -8,14 +9,25 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "notifications")
+@Table(
+    name = "notifications",
+    indexes = {
+        @Index(name = "idx_notifications_user", columnList = "user_id, id"),
+        @Index(name = "idx_notifications_created", columnList = "created_at"),
+    }
+)
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "notifications_seq"
+    )
+    @SequenceGenerator(name = "notifications_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
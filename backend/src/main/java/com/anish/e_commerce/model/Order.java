@@ -8,7 +8,16 @@ import java.util.List;
 import lombok.*;
 
 @Entity
-@Table(name = "orders")
+@Table(
+    name = "orders",
+    indexes = {
+        @Index(name = "idx_orders_created_at", columnList = "created_at"),
+        @Index(
+            name = "idx_orders_user_created",
+            columnList = "user_id, created_at"
+        ),
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +25,11 @@ import lombok.*;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "orders_seq"
+    )
+    @SequenceGenerator(name = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -35,7 +48,7 @@ public class Order {
         mappedBy = "order",
         cascade = CascadeType.ALL,
         orphanRemoval = true,
-        fetch = FetchType.EAGER
+        fetch = FetchType.LAZY
     )
     private List<OrderItem> items = new ArrayList<>();
 }
@@ -12,7 +12,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @AllArgsConstructor
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "order_item_seq"
+    )
+    @SequenceGenerator(name = "order_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
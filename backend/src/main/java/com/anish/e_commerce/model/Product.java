@@ -1,5 +1,6 @@
 package com.anish.e_commerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -9,6 +10,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(
+    indexes = {
+        // Keyset pagination seeks on (sort key, id)
+        @Index(
+            name = "idx_product_created_at_id",
+            columnList = "created_at, id"
+        ),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+    }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -31,6 +42,16 @@ public class Product implements Serializable {
     private Date createdAt;
 
     private boolean available;
+
+    // Set when a listed product runs out of stock, so stock coming back
+    // re-lists it; a product an admin hides is never marked sold out
+    @JsonIgnore
+    @Column(
+        name = "sold_out",
+        columnDefinition = "boolean not null default false"
+    )
+    private boolean soldOut;
+
     private int quantity;
     private String imageUrl;
 
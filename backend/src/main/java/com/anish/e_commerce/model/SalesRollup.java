@@ -0,0 +1,51 @@
+package com.anish.e_commerce.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Completed-order totals per time bucket. Each grain keeps one row per
+// bucket for the whole store (category = ALL) and one per ProductCategory.
+@Entity
+@Table(name = "sales_rollup")
+@Getter
+@Setter
+public class SalesRollup {
+
+    public static final String ALL = "ALL";
+
+    public enum Grain {
+        HOUR,
+        DAY,
+    }
+
+    @EmbeddedId
+    private Key key;
+
+    private long orders;
+
+    private long units;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        private Grain grain;
+
+        private LocalDateTime bucket;
+
+        private String category;
+    }
+}
@@ -0,0 +1,65 @@
+package com.anish.e_commerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+// Stock held for a PENDING order until it is paid for, rejected or expires
+@Entity
+@Getter
+@Setter
+@Table(
+    name = "stock_reservations",
+    indexes = {
+        @Index(name = "idx_reservation_order", columnList = "order_id"),
+        @Index(
+            name = "idx_reservation_status_expiry",
+            columnList = "status, expires_at"
+        ),
+    }
+)
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "stock_reservations_seq"
+    )
+    @SequenceGenerator(name = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.ACTIVE;
+
+    // Where the held units were taken from, and so where they go back to
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Source source = Source.DATABASE;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum Status {
+        ACTIVE,
+        COMMITTED,
+        RELEASED,
+    }
+
+    public enum Source {
+        DATABASE,
+        REDIS,
+    }
+}
@@ -7,11 +7,21 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "wishlist")
+@Table(
+    name = "wishlist",
+    indexes = @Index(
+        name = "idx_wishlist_product",
+        columnList = "product_id, id"
+    )
+)
 public class Wishlist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(
+        strategy = GenerationType.SEQUENCE,
+        generator = "wishlist_seq"
+    )
+    @SequenceGenerator(name = "wishlist_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,164 @@
+package com.anish.e_commerce.notification;
+
+import com.anish.e_commerce.dto.UserNotification;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Pushes new notifications to open SSE streams. An idle stream holds no
+// thread, only its emitter; writes go out on virtual threads so a slow
+// client never stalls the others. Every push goes through Redis so users
+// connected to any node receive it.
+@Slf4j
+@Component
+public class NotificationHub implements MessageListener {
+
+    public static final String PUSH_CHANNEL = "notifications:push";
+
+    private static final int MAX_STREAMS_PER_USER = 5;
+    private static final TypeReference<List<UserNotification>> PUSHES =
+        new TypeReference<>() {};
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final Map<Long, List<SseEmitter>> streams =
+        new ConcurrentHashMap<>();
+    private final ExecutorService senders =
+        Executors.newVirtualThreadPerTaskExecutor();
+
+    public NotificationHub(
+        StringRedisTemplate redisTemplate,
+        ObjectMapper objectMapper,
+        RedisMessageListenerContainer listenerContainer,
+        @Value("${notifications.stream.timeout:30m}") Duration timeout
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        listenerContainer.addMessageListener(
+            this,
+            new ChannelTopic(PUSH_CHANNEL)
+        );
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = newEmitter();
+        List<SseEmitter> userStreams = streams.compute(userId, (id, list) -> {
+            List<SseEmitter> result = list != null
+                ? list
+                : new CopyOnWriteArrayList<>();
+            result.add(emitter);
+            return result;
+        });
+
+        // Too many tabs: the oldest stream is closed, the client reconnects
+        if (userStreams.size() > MAX_STREAMS_PER_USER) {
+            userStreams.get(0).complete();
+        }
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        return emitter;
+    }
+
+    // One Redis message per batch, however many users it addresses
+    public void publish(List<UserNotification> pushes) {
+        if (pushes.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(
+                PUSH_CHANNEL,
+                objectMapper.writeValueAsString(pushes)
+            );
+        } catch (Exception e) {
+            // Clients pick the notification up on their next reconnect
+            log.warn("Failed to relay {} notifications", pushes.size(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        List<UserNotification> pushes;
+        try {
+            pushes = objectMapper.readValue(message.getBody(), PUSHES);
+        } catch (IOException e) {
+            log.warn("Dropping unreadable notification push", e);
+            return;
+        }
+        for (UserNotification push : pushes) {
+            List<SseEmitter> userStreams = streams.get(push.userId());
+            if (userStreams == null) {
+                continue;
+            }
+            for (SseEmitter emitter : userStreams) {
+                senders.execute(() ->
+                    send(
+                        push.userId(),
+                        emitter,
+                        SseEmitter.event()
+                            .name("notification")
+                            .id(String.valueOf(push.notification().getId()))
+                            .data(push.notification())
+                    )
+                );
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds dead ones
+    @Scheduled(fixedRateString = "${notifications.stream.heartbeat:25s}")
+    public void heartbeat() {
+        streams.forEach((userId, userStreams) -> {
+            for (SseEmitter emitter : userStreams) {
+                senders.execute(() ->
+                    send(userId, emitter, SseEmitter.event().comment("ping"))
+                );
+            }
+        });
+    }
+
+    private void send(
+        long userId,
+        SseEmitter emitter,
+        SseEmitter.SseEventBuilder event
+    ) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Package-private so tests can hand out emitters they can observe
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void remove(long userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (id, userStreams) -> {
+            userStreams.remove(emitter);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+}
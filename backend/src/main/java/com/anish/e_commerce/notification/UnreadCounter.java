@@ -0,0 +1,158 @@
+package com.anish.e_commerce.notification;
+
+import com.anish.e_commerce.repo.NotificationRepo;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+// Unread notifications per user, kept in Redis so the bell badge is one GET.
+// Counters are only adjusted while they exist; a missing one is recounted
+// from Postgres, and the TTL bounds how long any drift can last.
+//
+//   notifications:unread:{userId}     -> the count
+//   notifications:unread:gen:{userId} -> bumped by every change that found
+//                                        no counter and by invalidate(), so a
+//                                        recount that raced one is not stored
+@Slf4j
+@Component
+public class UnreadCounter {
+
+    private static final String KEY_PREFIX = "notifications:unread:";
+    private static final String GEN_KEY_PREFIX = "notifications:unread:gen:";
+    private static final Duration TTL = Duration.ofHours(6);
+    // Only has to outlive one recount
+    private static final Duration GEN_TTL = Duration.ofMinutes(1);
+
+    // KEYS are counter/generation pairs. Adds ARGV[1] to every counter that
+    // exists, never going below zero, and bumps the generation of the rest
+    private static final RedisScript<Long> ADD_IF_PRESENT =
+        new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do " +
+                "if redis.call('EXISTS', KEYS[i]) == 1 then " +
+                "local n = redis.call('INCRBY', KEYS[i], ARGV[1]) " +
+                "if n < 0 then redis.call('SET', KEYS[i], 0, 'KEEPTTL') end " +
+                "else " +
+                "redis.call('INCR', KEYS[i + 1]) " +
+                "redis.call('EXPIRE', KEYS[i + 1], ARGV[2]) " +
+                "end " +
+                "end " +
+                "return 0",
+            Long.class
+        );
+
+    // Stores a recount only if no change slipped past it since ARGV[2] was read
+    private static final RedisScript<Long> SEED = new DefaultRedisScript<>(
+        "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[2] then return 0 end " +
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[3]) " +
+            "then return 1 end " +
+            "return 0",
+        Long.class
+    );
+
+    // Drops the counter and moves the generation, so a recount that started
+    // before the caller's change cannot store what it saw
+    private static final RedisScript<Long> INVALIDATE =
+        new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) " +
+                "redis.call('INCR', KEYS[2]) " +
+                "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+                "return 0",
+            Long.class
+        );
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepo notificationRepo;
+
+    public UnreadCounter(
+        StringRedisTemplate redisTemplate,
+        NotificationRepo notificationRepo
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepo = notificationRepo;
+    }
+
+    public long get(long userId) {
+        String key = key(userId);
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+            // Read before the count: a change that lands while it runs moves
+            // the generation, and the stale count is served once, not stored
+            String generation = redisTemplate.opsForValue().get(genKey(userId));
+            long count = notificationRepo.countByUserIdAndIsReadFalse(userId);
+            redisTemplate.execute(
+                SEED,
+                List.of(key, genKey(userId)),
+                String.valueOf(count),
+                generation != null ? generation : "0",
+                String.valueOf(TTL.toSeconds())
+            );
+            return count;
+        } catch (RuntimeException e) {
+            log.warn("Unread counter unavailable for user {}", userId, e);
+            return notificationRepo.countByUserIdAndIsReadFalse(userId);
+        }
+    }
+
+    public void add(Collection<Long> userIds, long delta) {
+        if (userIds.isEmpty() || delta == 0) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>();
+            for (Long userId : userIds) {
+                keys.add(key(userId));
+                keys.add(genKey(userId));
+            }
+            redisTemplate.execute(
+                ADD_IF_PRESENT,
+                keys,
+                String.valueOf(delta),
+                String.valueOf(GEN_TTL.toSeconds())
+            );
+        } catch (RuntimeException e) {
+            // Dropping the keys makes the next read recount instead
+            log.warn("Failed to adjust unread counters", e);
+            forget(userIds);
+        }
+    }
+
+    public void invalidate(long userId) {
+        try {
+            redisTemplate.execute(
+                INVALIDATE,
+                List.of(key(userId), genKey(userId)),
+                String.valueOf(GEN_TTL.toSeconds())
+            );
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate unread counter for {}", userId, e);
+            forget(List.of(userId));
+        }
+    }
+
+    private void forget(Collection<Long> userIds) {
+        try {
+            redisTemplate.delete(
+                userIds.stream().map(UnreadCounter::key).toList()
+            );
+        } catch (RuntimeException ignored) {
+            // Redis is down; the TTL will clear whatever is left
+        }
+    }
+
+    private static String key(long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private static String genKey(long userId) {
+        return GEN_KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,56 @@
+package com.anish.e_commerce.repo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Write-behind target for the Redis cart store: a cart is replaced as a
+// whole, under its row lock, in a constant number of round trips
+@Repository
+@RequiredArgsConstructor
+public class CartJdbcRepo {
+
+    // Products deleted since they were added are dropped by the join
+    private static final String INSERT_ITEM =
+        "INSERT INTO cart_item (id, cart_id, product_id, quantity) " +
+        "SELECT nextval('cart_item_seq'), ?, p.id, ? FROM product p " +
+        "WHERE p.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Creates the cart if the user has none; empty when the user is gone
+    public List<Long> lockCart(String username) {
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT c.id FROM cart c JOIN users u ON u.id = c.user_id " +
+                "WHERE u.username = ? FOR UPDATE OF c",
+            Long.class,
+            username
+        );
+        if (!ids.isEmpty()) {
+            return ids;
+        }
+        // The no-op update takes the same row lock when another node wins
+        return jdbcTemplate.queryForList(
+            "INSERT INTO cart (user_id) SELECT id FROM users " +
+                "WHERE username = ? ON CONFLICT (user_id) " +
+                "DO UPDATE SET user_id = EXCLUDED.user_id RETURNING id",
+            Long.class,
+            username
+        );
+    }
+
+    public void replaceItems(long cartId, Map<Integer, Integer> quantities) {
+        jdbcTemplate.update("DELETE FROM cart_item WHERE cart_id = ?", cartId);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        quantities.forEach((productId, quantity) ->
+            rows.add(new Object[] { cartId, quantity, productId })
+        );
+        jdbcTemplate.batchUpdate(INSERT_ITEM, rows);
+    }
+}
@@ -0,0 +1,85 @@
+package com.anish.e_commerce.repo;
+
+import com.anish.e_commerce.dto.NotificationResponse;
+import com.anish.e_commerce.dto.UserNotification;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class NotificationJdbcRepo {
+
+    // One chunk of a product's wishlist, keyset-paged on wishlist.id, turned
+    // into notifications server-side; ids come from the same pooled sequence
+    // Hibernate uses, and each nextval here claims a whole block of its own
+    private static final String INSERT_CHUNK =
+        "WITH chunk AS (" +
+        "SELECT id, user_id FROM wishlist " +
+        "WHERE product_id = ? AND id > ? ORDER BY id LIMIT ?), " +
+        "inserted AS (" +
+        "INSERT INTO notifications (id, user_id, message, is_read, created_at) " +
+        "SELECT nextval('notifications_seq'), user_id, ?, false, now() " +
+        "FROM chunk RETURNING id, user_id, message, created_at) " +
+        "SELECT i.id, i.user_id, i.message, i.created_at, " +
+        "(SELECT max(id) FROM chunk) AS last_wishlist_id FROM inserted i";
+
+    // SKIP LOCKED lets several nodes purge without waiting on each other
+    private static final String DELETE_OLDER_THAN =
+        "DELETE FROM notifications WHERE id IN (" +
+        "SELECT id FROM notifications WHERE created_at < ? " +
+        "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+        "RETURNING user_id, is_read";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Chunk(List<UserNotification> inserted, long lastWishlistId) {}
+
+    public record Deleted(long userId, boolean unread) {}
+
+    public Chunk insertRestockChunk(
+        int productId,
+        long afterWishlistId,
+        int limit,
+        String message
+    ) {
+        List<UserNotification> inserted = new ArrayList<>();
+        long[] lastWishlistId = { afterWishlistId };
+        jdbcTemplate.query(
+            INSERT_CHUNK,
+            rs -> {
+                inserted.add(
+                    new UserNotification(
+                        rs.getLong("user_id"),
+                        new NotificationResponse(
+                            rs.getLong("id"),
+                            rs.getString("message"),
+                            false,
+                            rs.getTimestamp("created_at")
+                        )
+                    )
+                );
+                lastWishlistId[0] = rs.getLong("last_wishlist_id");
+            },
+            productId,
+            afterWishlistId,
+            limit,
+            message
+        );
+        return new Chunk(inserted, lastWishlistId[0]);
+    }
+
+    public List<Deleted> deleteOlderThan(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(
+            DELETE_OLDER_THAN,
+            (rs, rowNum) ->
+                new Deleted(rs.getLong("user_id"), !rs.getBoolean("is_read")),
+            Timestamp.valueOf(cutoff),
+            limit
+        );
+    }
+}
@@ -1,9 +1,50 @@
 package com.anish.e_commerce.repo;
 
+import com.anish.e_commerce.dto.NotificationResponse;
 import com.anish.e_commerce.model.Notification;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface NotificationRepo extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+    String RESPONSE =
+        "SELECT new com.anish.e_commerce.dto.NotificationResponse(" +
+        "n.id, n.message, n.isRead, n.createdAt) FROM Notification n ";
+
+    // Keyset on id (newest first), served by the (user_id, id) index
+    @Query(RESPONSE + "WHERE n.user.id = :userId ORDER BY n.id DESC")
+    List<NotificationResponse> findNewest(
+        @Param("userId") Long userId,
+        Pageable limit
+    );
+
+    @Query(
+        RESPONSE +
+        "WHERE n.user.id = :userId AND n.id < :before ORDER BY n.id DESC"
+    )
+    List<NotificationResponse> findNewestBefore(
+        @Param("userId") Long userId,
+        @Param("before") Long before,
+        Pageable limit
+    );
+
+    long countByUserIdAndIsReadFalse(Long userId);
+
+    // Matches nothing unless the notification is the user's and still unread
+    @Modifying
+    @Query(
+        "UPDATE Notification n SET n.isRead = true " +
+        "WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false"
+    )
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(
+        "UPDATE Notification n SET n.isRead = true " +
+        "WHERE n.user.id = :userId AND n.isRead = false"
+    )
+    int markAllRead(@Param("userId") Long userId);
 }
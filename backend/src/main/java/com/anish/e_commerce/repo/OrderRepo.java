@@ -1,12 +1,75 @@
 package com.anish.e_commerce.repo;
 
+import com.anish.e_commerce.dto.DailyOrderTotal;
+import com.anish.e_commerce.dto.OrderSummaryResponse;
 import com.anish.e_commerce.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface OrderRepo extends JpaRepository<Order, Long> {
-    List<Order> findByUser_UsernameOrderByCreatedAtDesc(String username);
-    java.util.Optional<Order> findByRazorpayOrderId(String razorpayOrderId);
+    // Summaries only: no order entities, items or products are loaded
+    @Query(
+        "SELECT new com.anish.e_commerce.dto.OrderSummaryResponse(" +
+            "o.id, o.createdAt, o.status, o.totalAmount, count(i)) " +
+            "FROM Order o LEFT JOIN o.items i " +
+            "WHERE o.user.username = :username " +
+            "GROUP BY o.id, o.createdAt, o.status, o.totalAmount " +
+            "ORDER BY o.createdAt DESC, o.id DESC"
+    )
+    Slice<OrderSummaryResponse> findSummaries(
+        @Param("username") String username,
+        Pageable pageable
+    );
+
+    // Owner, lines and their products in one query
+    @Query(
+        "SELECT o FROM Order o JOIN FETCH o.user " +
+            "LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product " +
+            "WHERE o.id = :id"
+    )
+    Optional<Order> findDetailById(@Param("id") Long id);
+
+    // Payment callbacks need the lines, so they come with the order
+    @Query(
+        "SELECT o FROM Order o " +
+            "LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product " +
+            "WHERE o.razorpayOrderId = :razorpayOrderId"
+    )
+    Optional<Order> findByRazorpayOrderId(
+        @Param("razorpayOrderId") String razorpayOrderId
+    );
+
+    @Modifying
+    @Query(
+        "UPDATE Order o SET o.status = 'EXPIRED' " +
+            "WHERE o.id IN :ids AND o.status = 'PENDING'"
+    )
+    int expirePending(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT coalesce(sum(o.totalAmount), 0) FROM Order o")
+    BigDecimal sumTotalAmount();
+
+    // Grouped in Postgres; served by the created_at index
+    @Query(
+        "SELECT new com.anish.e_commerce.dto.DailyOrderTotal(" +
+            "cast(o.createdAt as LocalDate), count(o), " +
+            "coalesce(sum(o.totalAmount), 0)) " +
+            "FROM Order o WHERE o.createdAt >= :since " +
+            "GROUP BY cast(o.createdAt as LocalDate) " +
+            "ORDER BY cast(o.createdAt as LocalDate)"
+    )
+    List<DailyOrderTotal> findDailyTotalsSince(
+        @Param("since") LocalDateTime since
+    );
 }
@@ -1,37 +1,169 @@
 package com.anish.e_commerce.repo;
 
+import com.anish.e_commerce.dto.ProductCardResponse;
 import com.anish.e_commerce.model.Product;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProductRepo extends JpaRepository<Product, Integer> {
+    // Batch scan without the count(*) that findAll(Pageable) would add
+    Slice<Product> findAllBy(Pageable pageable);
+
+    // Catalog list endpoints only select what a product card renders
+    String CARD =
+        "SELECT new com.anish.e_commerce.dto.ProductCardResponse(" +
+        "p.id, p.name, p.brand, p.price, p.imageUrl, p.available, p.category, " +
+        "p.createdAt) ";
+
     @Query(
-        "SELECT p FROM Product p WHERE " +
+        value = CARD + "FROM Product p",
+        countQuery = "SELECT count(p) FROM Product p"
+    )
+    Page<ProductCardResponse> findAllCards(Pageable pageable);
+
+    @Query(CARD + "FROM Product p WHERE p.id IN :ids")
+    List<ProductCardResponse> findCardsByIdIn(
+        @Param("ids") Collection<Integer> ids
+    );
+
+    @Query(
+        CARD +
+            "FROM Product p WHERE " +
             "(:keyword IS NULL OR :keyword = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
             "AND (:category IS NULL OR p.category = :category) " +
             "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
             "AND (:maxPrice IS NULL OR p.price <= :maxPrice)" +
             "AND (:available IS NULL OR p.available = :available) "
     )
-    List<Product> filterProducts(
+    Slice<ProductCardResponse> filterProducts(
         @Param("keyword") String keyword,
         @Param("category") Product.ProductCategory category,
         @Param("minPrice") java.math.BigDecimal minPrice,
         @Param("maxPrice") java.math.BigDecimal maxPrice,
         @Param("available") Boolean available,
-        org.springframework.data.domain.Sort sort
+        Pageable pageable
     );
 
     @Query(
-        "SELECT p FROM Product p WHERE " +
+        CARD +
+            "FROM Product p WHERE " +
             "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(p.category) LIKE LOWER(CONCAT('%', :keyword, '%'))"
     )
-    List<Product> searchProducts(@Param("keyword") String Keyword);
+    List<ProductCardResponse> searchProducts(@Param("keyword") String Keyword);
+
+    // Ranked ids from the generated search_vector column (GIN indexed)
+    @Query(
+        value = "SELECT p.id FROM product p " +
+            "WHERE p.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(p.search_vector, to_tsquery('simple', :query)) DESC, p.id " +
+            "LIMIT :limit",
+        nativeQuery = true
+    )
+    List<Integer> fullTextSearchIds(
+        @Param("query") String query,
+        @Param("limit") int limit
+    );
+
+    // Keyset ("seek") pagination: no OFFSET and no count(*). Rows without
+    // a sort key come last, so a seek past a dated or priced row still has
+    // them ahead, and one past an undated or unpriced row only has those
+    @Query(
+        CARD +
+            "FROM Product p ORDER BY p.createdAt DESC NULLS LAST, p.id DESC"
+    )
+    List<ProductCardResponse> findNewestFirst(Pageable limit);
+
+    @Query(
+        CARD +
+            "FROM Product p WHERE " +
+            "p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "OR p.createdAt IS NULL " +
+            "ORDER BY p.createdAt DESC NULLS LAST, p.id DESC"
+    )
+    List<ProductCardResponse> findNewestAfter(
+        @Param("createdAt") Date createdAt,
+        @Param("id") int id,
+        Pageable limit
+    );
+
+    @Query(
+        CARD +
+            "FROM Product p WHERE p.createdAt IS NULL AND p.id < :id " +
+            "ORDER BY p.id DESC"
+    )
+    List<ProductCardResponse> findUndatedAfter(
+        @Param("id") int id,
+        Pageable limit
+    );
+
+    @Query(
+        CARD + "FROM Product p ORDER BY p.price ASC NULLS LAST, p.id ASC"
+    )
+    List<ProductCardResponse> findCheapestFirst(Pageable limit);
+
+    @Query(
+        CARD +
+            "FROM Product p WHERE " +
+            "p.price > :price OR (p.price = :price AND p.id > :id) " +
+            "OR p.price IS NULL " +
+            "ORDER BY p.price ASC NULLS LAST, p.id ASC"
+    )
+    List<ProductCardResponse> findCheapestAfter(
+        @Param("price") BigDecimal price,
+        @Param("id") int id,
+        Pageable limit
+    );
+
+    @Query(
+        CARD +
+            "FROM Product p WHERE p.price IS NULL AND p.id > :id " +
+            "ORDER BY p.id ASC"
+    )
+    List<ProductCardResponse> findUnpricedAfter(
+        @Param("id") int id,
+        Pageable limit
+    );
+
+    // Only re-lists products that were hidden because they had sold out
+    @Modifying
+    @Query(
+        "UPDATE Product p SET p.quantity = p.quantity + :quantity, " +
+            "p.available = CASE WHEN p.soldOut = true " +
+            "THEN true ELSE p.available END, " +
+            "p.soldOut = false " +
+            "WHERE p.id = :id"
+    )
+    int releaseStock(@Param("id") int id, @Param("quantity") int quantity);
+
+    // Unconditional; used to catch Postgres up with sales counted in Redis
+    @Modifying
+    @Query(
+        "UPDATE Product p SET p.quantity = p.quantity - :quantity, " +
+            "p.available = CASE WHEN p.quantity > :quantity " +
+            "THEN p.available ELSE false END, " +
+            "p.soldOut = CASE WHEN p.quantity > :quantity THEN p.soldOut " +
+            "WHEN p.available = true THEN true ELSE p.soldOut END " +
+            "WHERE p.id = :id"
+    )
+    int deductStock(@Param("id") int id, @Param("quantity") int quantity);
+
+    @Query(
+        "SELECT count(p) FROM Product p " +
+            "WHERE p.available = false OR p.quantity = 0"
+    )
+    long countOutOfStock();
 }
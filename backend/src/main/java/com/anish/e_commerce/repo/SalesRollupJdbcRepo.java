@@ -0,0 +1,90 @@
+package com.anish.e_commerce.repo;
+
+import com.anish.e_commerce.model.SalesRollup;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupJdbcRepo {
+
+    private static final String MERGE =
+        " ON CONFLICT (grain, bucket, category) DO UPDATE SET " +
+        "orders = sales_rollup.orders + EXCLUDED.orders, " +
+        "units = sales_rollup.units + EXCLUDED.units, " +
+        "revenue = sales_rollup.revenue + EXCLUDED.revenue";
+
+    private static final String UPSERT =
+        "INSERT INTO sales_rollup " +
+        "(grain, bucket, category, orders, units, revenue) " +
+        "VALUES (?, ?, ?, ?, ?, ?)" +
+        MERGE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Delta(
+        SalesRollup.Grain grain,
+        LocalDateTime bucket,
+        String category,
+        long orders,
+        long units,
+        BigDecimal revenue
+    ) {}
+
+    // Callers pass rows in key order so concurrent orders lock them alike
+    public void add(List<Delta> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT, deltas, deltas.size(), (ps, d) -> {
+            ps.setString(1, d.grain().name());
+            ps.setTimestamp(2, Timestamp.valueOf(d.bucket()));
+            ps.setString(3, d.category());
+            ps.setLong(4, d.orders());
+            ps.setLong(5, d.units());
+            ps.setBigDecimal(6, d.revenue());
+        });
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(
+            jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM sales_rollup)",
+                Boolean.class
+            )
+        );
+    }
+
+    // Rebuilds one grain from completed orders with two grouped scans
+    public void backfill(SalesRollup.Grain grain) {
+        String bucket =
+            "date_trunc('" + grain.name().toLowerCase() + "', o.created_at)";
+        jdbcTemplate.update(
+            "INSERT INTO sales_rollup " +
+                "(grain, bucket, category, orders, units, revenue) " +
+                "SELECT ?, " + bucket + ", '" + SalesRollup.ALL + "', " +
+                "count(*), coalesce(sum(u.units), 0), " +
+                "coalesce(sum(o.total_amount), 0) " +
+                "FROM orders o LEFT JOIN (" +
+                "SELECT order_id, sum(quantity) AS units " +
+                "FROM order_item GROUP BY order_id) u ON u.order_id = o.id " +
+                "WHERE o.status = 'COMPLETED' GROUP BY 2" +
+                MERGE,
+            grain.name()
+        );
+        jdbcTemplate.update(
+            "INSERT INTO sales_rollup " +
+                "(grain, bucket, category, orders, units, revenue) " +
+                "SELECT ?, " + bucket + ", p.category, " +
+                "count(DISTINCT o.id), sum(i.quantity), " +
+                "sum(i.quantity * i.price_at_purchase) " +
+                "FROM orders o JOIN order_item i ON i.order_id = o.id " +
+                "JOIN product p ON p.id = i.product_id " +
+                "WHERE o.status = 'COMPLETED' GROUP BY 2, 3" +
+                MERGE,
+            grain.name()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.anish.e_commerce.repo;
+
+import com.anish.e_commerce.model.SalesRollup;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SalesRollupRepo
+    extends JpaRepository<SalesRollup, SalesRollup.Key> {
+    // Range scan on the primary key (grain, bucket, category)
+    @Query(
+        "SELECT r FROM SalesRollup r WHERE r.key.grain = :grain " +
+            "AND r.key.bucket >= :from AND r.key.bucket < :to"
+    )
+    List<SalesRollup> findRange(
+        @Param("grain") SalesRollup.Grain grain,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+}
@@ -0,0 +1,147 @@
+package com.anish.e_commerce.repo;
+
+import com.anish.e_commerce.model.StockReservation;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+// Set-based stock statements that Spring Data cannot express: JDBC batches
+// (one round trip for a whole order) and UPDATE ... RETURNING
+@Repository
+@RequiredArgsConstructor
+public class StockJdbcRepo {
+
+    private static final String TAKE =
+        "UPDATE product SET quantity = quantity - ?, " +
+        "available = CASE WHEN quantity > ? THEN available ELSE false END, " +
+        "sold_out = CASE WHEN quantity > ? THEN sold_out " +
+        "ELSE available OR sold_out END " +
+        "WHERE id = ? AND quantity >= ?";
+
+    // Only re-lists products that were hidden because they had sold out
+    private static final String GIVE_BACK =
+        "UPDATE product SET quantity = quantity + ?, " +
+        "available = available OR sold_out, sold_out = false " +
+        "WHERE id = ?";
+
+    private static final String RETURNING =
+        " RETURNING id, order_id, product_id, quantity, source";
+
+    private static final RowMapper<HeldStock> HELD_STOCK = (rs, rowNum) ->
+        new HeldStock(
+            rs.getLong("id"),
+            rs.getLong("order_id"),
+            rs.getInt("product_id"),
+            rs.getInt("quantity"),
+            StockReservation.Source.valueOf(rs.getString("source"))
+        );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Keys must be product ids in ascending order, so every checkout locks
+    // rows in the same order. Returns the ids that did not have enough stock
+    public List<Integer> takeStock(SortedMap<Integer, Integer> quantities) {
+        List<Map.Entry<Integer, Integer>> rows = new ArrayList<>(
+            quantities.entrySet()
+        );
+        int[] updated = batch(TAKE, rows, (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setInt(2, row.getValue());
+            ps.setInt(3, row.getValue());
+            ps.setInt(4, row.getKey());
+            ps.setInt(5, row.getValue());
+        });
+
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
+    public void giveBackStock(SortedMap<Integer, Integer> quantities) {
+        batch(
+            GIVE_BACK,
+            new ArrayList<>(quantities.entrySet()),
+            (ps, row) -> {
+                ps.setInt(1, row.getValue());
+                ps.setInt(2, row.getKey());
+            }
+        );
+    }
+
+    // Finishes every ACTIVE hold of an order and reports what was held
+    public List<HeldStock> finishActive(
+        Long orderId,
+        StockReservation.Status status
+    ) {
+        return jdbcTemplate.query(
+            "UPDATE stock_reservations SET status = ? " +
+                "WHERE order_id = ? AND status = 'ACTIVE'" +
+                RETURNING,
+            HELD_STOCK,
+            status.name(),
+            orderId
+        );
+    }
+
+    // SKIP LOCKED lets several nodes sweep without waiting on each other
+    public List<HeldStock> releaseExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(
+            "UPDATE stock_reservations SET status = 'RELEASED' " +
+                "WHERE id IN (SELECT id FROM stock_reservations " +
+                "WHERE status = 'ACTIVE' AND expires_at < ? " +
+                "ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED)" +
+                RETURNING,
+            HELD_STOCK,
+            Timestamp.valueOf(now),
+            limit
+        );
+    }
+
+    private <T> int[] batch(String sql, List<T> rows, RowSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(
+            sql,
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i)
+                    throws SQLException {
+                    setter.set(ps, rows.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            }
+        );
+    }
+
+    @FunctionalInterface
+    private interface RowSetter<T> {
+        void set(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    public record HeldStock(
+        long reservationId,
+        long orderId,
+        int productId,
+        int quantity,
+        StockReservation.Source source
+    ) {}
+}
@@ -0,0 +1,43 @@
+package com.anish.e_commerce.repo;
+
+import com.anish.e_commerce.model.StockReservation;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockReservationRepo
+    extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrder_IdAndStatus(
+        Long orderId,
+        StockReservation.Status status
+    );
+
+    // Guarded transition: only one of payment, failure or expiry wins
+    @Modifying
+    @Query(
+        "UPDATE StockReservation r SET r.status = :to " +
+            "WHERE r.id = :id AND r.status = :from"
+    )
+    int transition(
+        @Param("id") Long id,
+        @Param("from") StockReservation.Status from,
+        @Param("to") StockReservation.Status to
+    );
+
+    @Modifying
+    @Query(
+        "UPDATE StockReservation r SET r.source = :to " +
+            "WHERE r.productId = :productId AND r.status = :status " +
+            "AND r.source = :from"
+    )
+    int updateSource(
+        @Param("productId") int productId,
+        @Param("status") StockReservation.Status status,
+        @Param("from") StockReservation.Source from,
+        @Param("to") StockReservation.Source to
+    );
+}
@@ -0,0 +1,538 @@
+package com.anish.e_commerce.search;
+
+import com.anish.e_commerce.dto.CatalogSearchResponse;
+import com.anish.e_commerce.dto.CatalogSearchResponse.PriceFacet;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.dto.ProductSuggestion;
+import com.anish.e_commerce.event.ProductChangedEvent;
+import com.anish.e_commerce.event.StockChangedEvent;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.repo.ProductRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// In-JVM inverted index over the catalog: token postings, category and
+// availability bitsets, price buckets and name/brand trigrams, all keyed by
+// product id. Browse, facet and suggest queries never touch Postgres.
+@Component
+@Slf4j
+public class CatalogIndex implements MessageListener {
+
+    public static final String CHANGE_CHANNEL = "catalog:changed";
+
+    private static final int WARM_UP_BATCH = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    // Share of the query's trigrams a name or brand must contain to be suggested
+    private static final double MIN_TRIGRAM_COVERAGE = 0.4;
+    private static final BigDecimal[] PRICE_BOUNDS = {
+        BigDecimal.ZERO,
+        new BigDecimal("25"),
+        new BigDecimal("50"),
+        new BigDecimal("100"),
+        new BigDecimal("250"),
+        new BigDecimal("500"),
+    };
+
+    private final ProductRepo productRepo;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Integer> changedDuringRebuild =
+        ConcurrentHashMap.newKeySet();
+    private final Cache<String, List<ProductSuggestion>> suggestCache =
+        Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .build();
+
+    private Segment segment = new Segment(); // Guarded by lock
+    private volatile boolean rebuilding;
+    private volatile boolean warm;
+
+    public CatalogIndex(
+        ProductRepo productRepo,
+        StringRedisTemplate redisTemplate,
+        RedisMessageListenerContainer listenerContainer
+    ) {
+        this.productRepo = productRepo;
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(
+            this,
+            new ChannelTopic(CHANGE_CHANNEL)
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+
+        // 1. Build a fresh segment off to the side, streaming in batches
+        Segment fresh = new Segment();
+        Pageable pageable = PageRequest.of(0, WARM_UP_BATCH, Sort.by("id"));
+        Slice<Product> batch;
+        do {
+            batch = productRepo.findAllBy(pageable);
+            batch.forEach(fresh::put);
+            pageable = batch.nextPageable();
+        } while (batch.hasNext());
+
+        // 2. Swap it in, then replay anything written while we were scanning
+        lock.writeLock().lock();
+        try {
+            segment = fresh;
+            rebuilding = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!changedDuringRebuild.isEmpty()) {
+            refresh(Set.copyOf(changedDuringRebuild));
+        }
+        changedDuringRebuild.clear();
+        suggestCache.invalidateAll();
+        warm = true;
+
+        log.info(
+            "✅ Catalog index built with {} products in {} ms",
+            fresh.products.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.productId());
+        try {
+            redisTemplate.convertAndSend(
+                CHANGE_CHANNEL,
+                nodeId + "|" + event.productId()
+            );
+        } catch (Exception e) {
+            log.warn("Failed to broadcast catalog change", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        refresh(event.productIds());
+        try {
+            redisTemplate.convertAndSend(
+                CHANGE_CHANNEL,
+                nodeId +
+                    "|" +
+                    event
+                        .productIds()
+                        .stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(","))
+            );
+        } catch (Exception e) {
+            log.warn("Failed to broadcast catalog change", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8)
+            .split("\\|");
+        if (parts.length == 2 && !nodeId.equals(parts[0])) {
+            refresh(
+                Arrays.stream(parts[1].split(","))
+                    .map(Integer::valueOf)
+                    .collect(Collectors.toSet())
+            );
+        }
+    }
+
+    private void refresh(int productId) {
+        refresh(Set.of(productId));
+    }
+
+    // One query however many products changed together
+    private void refresh(Collection<Integer> productIds) {
+        if (rebuilding) {
+            changedDuringRebuild.addAll(productIds);
+        }
+        List<Product> current = productRepo.findAllById(productIds);
+
+        lock.writeLock().lock();
+        try {
+            productIds.forEach(segment::remove);
+            current.forEach(segment::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        suggestCache.invalidateAll();
+    }
+
+    // Only ids the index holds are returned; callers look up the rest
+    public Map<Integer, ProductCardResponse> cards(Collection<Integer> ids) {
+        Map<Integer, ProductCardResponse> found = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                ProductCardResponse card = segment.products.get(id);
+                if (card != null) {
+                    found.put(id, card);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        String normalized = String.join(" ", tokenize(query));
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        // Outside the cache loader: a rebuild invalidates this very cache
+        if (!warm) {
+            rebuild();
+        }
+        int n = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        return suggestCache.get(normalized + "|" + n, key ->
+            computeSuggestions(normalized, n)
+        );
+    }
+
+    private List<ProductSuggestion> computeSuggestions(
+        String query,
+        int limit
+    ) {
+        lock.readLock().lock();
+        try {
+            Segment s = segment;
+
+            // 1. Count how many of the query's trigrams each product shares
+            Set<String> queryGrams = trigrams(query);
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String gram : queryGrams) {
+                BitSet ids = s.trigrams.get(gram);
+                if (ids != null) {
+                    ids
+                        .stream()
+                        .forEach(id -> shared.merge(id, 1, Integer::sum));
+                }
+            }
+
+            // 2. Keep close matches (tolerates typos), best coverage first
+            int minShared = (int) Math.ceil(
+                queryGrams.size() * MIN_TRIGRAM_COVERAGE
+            );
+            return shared
+                .entrySet()
+                .stream()
+                .filter(e -> e.getValue() >= minShared)
+                .map(e -> s.products.get(e.getKey()))
+                .sorted(
+                    Comparator.<ProductCardResponse>comparingInt(p ->
+                        -shared.get(p.getId())
+                    )
+                        .thenComparingInt(p ->
+                            p.getName() != null ? p.getName().length() : 0
+                        )
+                        .thenComparingInt(ProductCardResponse::getId)
+                )
+                .limit(limit)
+                .map(p ->
+                    new ProductSuggestion(p.getId(), p.getName(), p.getImageUrl())
+                )
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CatalogSearchResponse search(
+        String keyword,
+        ProductCategory category,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean available,
+        String sortDir,
+        int page,
+        int size
+    ) {
+        if (!warm) {
+            rebuild();
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int offset = Math.max(page, 0) * limit;
+
+        lock.readLock().lock();
+        try {
+            Segment s = segment;
+
+            // 1. Keyword and availability narrow the candidate set
+            BitSet matches = (BitSet) s.all.clone();
+            for (String token : tokenize(keyword)) {
+                matches.and(s.prefixPostings(token));
+            }
+            if (available != null) {
+                if (available) {
+                    matches.and(s.available);
+                } else {
+                    matches.andNot(s.available);
+                }
+            }
+
+            // 2. Each facet is counted without its own filter applied
+            BitSet priced = s.withinPrice(matches, minPrice, maxPrice);
+            Map<String, Long> categoryFacets = new LinkedHashMap<>();
+            for (ProductCategory c : ProductCategory.values()) {
+                categoryFacets.put(
+                    c.name(),
+                    intersectCount(priced, s.category(c))
+                );
+            }
+
+            BitSet categorized = (BitSet) matches.clone();
+            if (category != null) {
+                categorized.and(s.category(category));
+            }
+            List<PriceFacet> priceFacets = new ArrayList<>();
+            for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+                BigDecimal upper = i + 1 < PRICE_BOUNDS.length
+                    ? PRICE_BOUNDS[i + 1]
+                    : null;
+                priceFacets.add(
+                    new PriceFacet(
+                        PRICE_BOUNDS[i],
+                        upper,
+                        intersectCount(categorized, s.priceBuckets[i])
+                    )
+                );
+            }
+
+            // 3. Results honour every filter at once
+            BitSet result = (BitSet) priced.clone();
+            if (category != null) {
+                result.and(s.category(category));
+            }
+
+            Comparator<ProductCardResponse> byPrice = Comparator.comparing(
+                ProductCardResponse::getPrice,
+                Comparator.nullsLast(Comparator.naturalOrder())
+            );
+            if ("desc".equalsIgnoreCase(sortDir)) {
+                byPrice = Comparator.comparing(
+                    ProductCardResponse::getPrice,
+                    Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder())
+                );
+            }
+            List<ProductCardResponse> content = result
+                .stream()
+                .mapToObj(s.products::get)
+                .sorted(byPrice.thenComparing(ProductCardResponse::getId))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+
+            return new CatalogSearchResponse(
+                content,
+                result.cardinality(),
+                Math.max(page, 0),
+                limit,
+                categoryFacets,
+                priceFacets
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) return List.of();
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+            .filter(token -> !token.isEmpty())
+            .toList();
+    }
+
+    // pg_trgm style: each word padded with two leading and one trailing space
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String token : tokenize(text)) {
+            String padded = "  " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static long intersectCount(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    private static int priceBucket(BigDecimal price) {
+        if (price == null) return -1;
+        for (int i = PRICE_BOUNDS.length - 1; i >= 0; i--) {
+            if (price.compareTo(PRICE_BOUNDS[i]) >= 0) return i;
+        }
+        return -1;
+    }
+
+    private static final class Segment {
+
+        // Cards only: descriptions are tokenized on put, never kept on heap
+        final Map<Integer, ProductCardResponse> products = new HashMap<>();
+        final Map<Integer, Set<String>> tokensById = new HashMap<>();
+        final NavigableMap<String, BitSet> postings = new TreeMap<>();
+        final Map<String, BitSet> trigrams = new HashMap<>();
+        final Map<Integer, Set<String>> trigramsById = new HashMap<>();
+        final Map<ProductCategory, BitSet> categories = new EnumMap<>(
+            ProductCategory.class
+        );
+        final BitSet[] priceBuckets = new BitSet[PRICE_BOUNDS.length];
+        final BitSet all = new BitSet();
+        final BitSet available = new BitSet();
+
+        Segment() {
+            for (int i = 0; i < priceBuckets.length; i++) {
+                priceBuckets[i] = new BitSet();
+            }
+        }
+
+        void put(Product product) {
+            int id = product.getId();
+            remove(id);
+
+            Set<String> tokens = new HashSet<>();
+            tokens.addAll(tokenize(product.getName()));
+            tokens.addAll(tokenize(product.getBrand()));
+            tokens.addAll(tokenize(product.getDescription()));
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new BitSet()).set(id);
+            }
+
+            Set<String> grams = new HashSet<>();
+            grams.addAll(trigrams(product.getName()));
+            grams.addAll(trigrams(product.getBrand()));
+            for (String gram : grams) {
+                trigrams.computeIfAbsent(gram, g -> new BitSet()).set(id);
+            }
+
+            products.put(id, ProductCardResponse.from(product));
+            tokensById.put(id, tokens);
+            trigramsById.put(id, grams);
+            all.set(id);
+            if (product.isAvailable()) {
+                available.set(id);
+            }
+            if (product.getCategory() != null) {
+                categories
+                    .computeIfAbsent(product.getCategory(), c -> new BitSet())
+                    .set(id);
+            }
+            int bucket = priceBucket(product.getPrice());
+            if (bucket >= 0) {
+                priceBuckets[bucket].set(id);
+            }
+        }
+
+        void remove(int id) {
+            if (products.remove(id) == null) return;
+
+            for (String token : tokensById.remove(id)) {
+                BitSet ids = postings.get(token);
+                ids.clear(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+            for (String gram : trigramsById.remove(id)) {
+                BitSet ids = trigrams.get(gram);
+                ids.clear(id);
+                if (ids.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+            categories.values().forEach(ids -> ids.clear(id));
+            for (BitSet ids : priceBuckets) {
+                ids.clear(id);
+            }
+            all.clear(id);
+            available.clear(id);
+        }
+
+        BitSet category(ProductCategory category) {
+            return categories.getOrDefault(category, new BitSet());
+        }
+
+        // Union of every posting list whose token starts with the prefix
+        BitSet prefixPostings(String prefix) {
+            BitSet ids = new BitSet();
+            postings
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+                .values()
+                .forEach(ids::or);
+            return ids;
+        }
+
+        BitSet withinPrice(BitSet ids, BigDecimal min, BigDecimal max) {
+            BitSet result = (BitSet) ids.clone();
+            if (min == null && max == null) return result;
+
+            ids
+                .stream()
+                .forEach(id -> {
+                    BigDecimal price = products.get(id).getPrice();
+                    if (
+                        price == null ||
+                        (min != null && price.compareTo(min) < 0) ||
+                        (max != null && price.compareTo(max) > 0)
+                    ) {
+                        result.clear(id);
+                    }
+                });
+            return result;
+        }
+    }
+}
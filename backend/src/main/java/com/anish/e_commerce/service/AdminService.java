@@ -1,15 +1,13 @@
 package com.anish.e_commerce.service;
 
 import com.anish.e_commerce.dto.AdminStatsResponse;
-import com.anish.e_commerce.model.Order;
+import com.anish.e_commerce.dto.DailyOrderTotal;
 import com.anish.e_commerce.repo.OrderRepo;
 import com.anish.e_commerce.repo.ProductRepo;
 import com.anish.e_commerce.repo.UserRepo;
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -17,70 +15,41 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class AdminService {
 
+    // The chart covers the last month; older days only count in the totals
+    private static final int CHART_DAYS = 30;
+
     private final UserRepo userRepo;
     private final ProductRepo productRepo;
     private final OrderRepo orderRepo;
 
+    // Every figure is a SQL aggregate, so no order or product is loaded
     public AdminStatsResponse getStats() {
         AdminStatsResponse stats = new AdminStatsResponse();
 
         // 1. Get Totals
         stats.setTotalUsers(userRepo.count());
         stats.setTotalProducts(productRepo.count());
+        stats.setTotalOrders(orderRepo.count());
+        stats.setTotalRevenue(orderRepo.sumTotalAmount());
+        stats.setOutOfStockProducts(productRepo.countOutOfStock());
 
-        // 2. Process Orders for the Chart
-        List<Order> allOrders = orderRepo.findAll();
-        stats.setTotalOrders(allOrders.size());
-
-        // Calculate Overall Total Revenue
-        BigDecimal totalRevenue = allOrders
-            .stream()
-            .map(Order::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.setTotalRevenue(totalRevenue);
-
-        // Format dates to "Mar 26" style
+        // 2. Per-day orders and revenue for the chart, oldest first
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-
-        // Group orders by date (gives us Map<String, List<Order>>)
-        Map<String, List<Order>> ordersByDate = allOrders
-            .stream()
-            .collect(
-                Collectors.groupingBy(o -> o.getCreatedAt().format(formatter))
-            );
-
-        // Loop through each date, count the orders, and sum their revenue
-        List<AdminStatsResponse.DailyOrderStat> trends = ordersByDate
-            .entrySet()
-            .stream()
-            .map(entry -> {
-                String date = entry.getKey();
-                long count = entry.getValue().size();
-
-                // Sum the revenue for this specific day
-                BigDecimal dailyRevenue = entry
-                    .getValue()
-                    .stream()
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                return new AdminStatsResponse.DailyOrderStat(
-                    date,
-                    count,
-                    dailyRevenue
-                );
-            })
-            .collect(Collectors.toList());
-
-        stats.setOrdersOverTime(trends);
-
-        // Calculate Out of Stock Products
-        long outOfStock = productRepo
-            .findAll()
-            .stream()
-            .filter(p -> !p.isAvailable() || p.getQuantity() == 0)
-            .count();
-        stats.setOutOfStockProducts(outOfStock);
+        List<DailyOrderTotal> days = orderRepo.findDailyTotalsSince(
+            LocalDate.now().minusDays(CHART_DAYS - 1).atStartOfDay()
+        );
+        stats.setOrdersOverTime(
+            days
+                .stream()
+                .map(day ->
+                    new AdminStatsResponse.DailyOrderStat(
+                        day.day().format(formatter),
+                        day.orders(),
+                        day.revenue()
+                    )
+                )
+                .toList()
+        );
 
         return stats;
     }
@@ -0,0 +1,235 @@
+package com.anish.e_commerce.service;
+
+import com.anish.e_commerce.dto.AnalyticsResponse;
+import com.anish.e_commerce.event.OrderCompletedEvent;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.model.SalesRollup;
+import com.anish.e_commerce.repo.SalesRollupJdbcRepo;
+import com.anish.e_commerce.repo.SalesRollupJdbcRepo.Delta;
+import com.anish.e_commerce.repo.SalesRollupRepo;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Revenue series read from sales_rollup, so the cost depends on the number
+// of buckets asked for and never on the number of orders behind them
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    public enum Granularity {
+        HOUR(31),
+        DAY(731),
+        WEEK(3653),
+        MONTH(3653);
+
+        private final int maxDays;
+
+        Granularity(int maxDays) {
+            this.maxDays = maxDays;
+        }
+
+        static Granularity parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Granularity must be hour, day, week or month"
+                );
+            }
+        }
+
+        LocalDateTime truncate(LocalDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case WEEK -> time
+                    .truncatedTo(ChronoUnit.DAYS)
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> time
+                    .truncatedTo(ChronoUnit.DAYS)
+                    .withDayOfMonth(1);
+            };
+        }
+
+        LocalDateTime next(LocalDateTime bucket) {
+            return switch (this) {
+                case HOUR -> bucket.plusHours(1);
+                case DAY -> bucket.plusDays(1);
+                case WEEK -> bucket.plusWeeks(1);
+                case MONTH -> bucket.plusMonths(1);
+            };
+        }
+    }
+
+    private final SalesRollupRepo rollupRepo;
+    private final SalesRollupJdbcRepo rollupJdbcRepo;
+
+    // Same transaction as the payment, so an order is counted exactly once
+    @TransactionalEventListener(
+        phase = TransactionPhase.BEFORE_COMMIT,
+        fallbackExecution = true
+    )
+    public void onOrderCompleted(OrderCompletedEvent event) {
+        LocalDateTime placedAt = event.placedAt() != null
+            ? event.placedAt()
+            : LocalDateTime.now();
+
+        // 1. Units and revenue per category, in key order
+        Map<String, Long> units = new TreeMap<>();
+        Map<String, BigDecimal> revenue = new TreeMap<>();
+        long totalUnits = 0;
+        for (OrderCompletedEvent.Line line : event.lines()) {
+            String category = line.category().name();
+            units.merge(category, (long) line.quantity(), Long::sum);
+            revenue.merge(category, line.amount(), BigDecimal::add);
+            totalUnits += line.quantity();
+        }
+
+        // 2. One store-wide row and one row per category for each grain
+        List<Delta> deltas = new ArrayList<>();
+        for (SalesRollup.Grain grain : SalesRollup.Grain.values()) {
+            LocalDateTime bucket = grain == SalesRollup.Grain.HOUR
+                ? placedAt.truncatedTo(ChronoUnit.HOURS)
+                : placedAt.truncatedTo(ChronoUnit.DAYS);
+            deltas.add(
+                new Delta(
+                    grain,
+                    bucket,
+                    SalesRollup.ALL,
+                    1,
+                    totalUnits,
+                    event.totalAmount()
+                )
+            );
+            units.forEach((category, count) ->
+                deltas.add(
+                    new Delta(
+                        grain,
+                        bucket,
+                        category,
+                        1,
+                        count,
+                        revenue.get(category)
+                    )
+                )
+            );
+        }
+        rollupJdbcRepo.add(deltas);
+    }
+
+    public AnalyticsResponse getSeries(
+        LocalDate from,
+        LocalDate to,
+        String granularity
+    ) {
+        Granularity unit = Granularity.parse(granularity);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException(
+                "'to' must not be before 'from'"
+            );
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= unit.maxDays) {
+            throw new IllegalArgumentException(
+                "Range too long for " +
+                    unit.name().toLowerCase() +
+                    " granularity (max " +
+                    unit.maxDays +
+                    " days)"
+            );
+        }
+
+        // Weeks and months are always whole: the read is widened out to the
+        // edges of the first and last bucket, and the response reports that
+        // widened range rather than the one asked for
+        LocalDateTime start = unit.truncate(from.atStartOfDay());
+        LocalDateTime end = unit.next(unit.truncate(to.atStartOfDay()));
+
+        // 1. Every bucket in the range, empty ones included
+        TreeMap<LocalDateTime, AnalyticsResponse.Point> points =
+            new TreeMap<>();
+        for (
+            LocalDateTime bucket = start;
+            bucket.isBefore(end);
+            bucket = unit.next(bucket)
+        ) {
+            points.put(bucket, emptyPoint(bucket));
+        }
+
+        // 2. Hourly rows for hours, daily rows folded up for everything else
+        SalesRollup.Grain grain = unit == Granularity.HOUR
+            ? SalesRollup.Grain.HOUR
+            : SalesRollup.Grain.DAY;
+        for (SalesRollup row : rollupRepo.findRange(grain, start, end)) {
+            AnalyticsResponse.Point point = points.get(
+                unit.truncate(row.getKey().getBucket())
+            );
+            String category = row.getKey().getCategory();
+            if (SalesRollup.ALL.equals(category)) {
+                point.setOrders(point.getOrders() + row.getOrders());
+                point.setUnits(point.getUnits() + row.getUnits());
+                point.setRevenue(point.getRevenue().add(row.getRevenue()));
+            } else {
+                point
+                    .getUnitsByCategory()
+                    .merge(
+                        ProductCategory.valueOf(category),
+                        row.getUnits(),
+                        Long::sum
+                    );
+            }
+        }
+
+        // 3. Averages once the totals are known
+        for (AnalyticsResponse.Point point : points.values()) {
+            if (point.getOrders() > 0) {
+                point.setAverageBasket(
+                    point
+                        .getRevenue()
+                        .divide(
+                            BigDecimal.valueOf(point.getOrders()),
+                            2,
+                            RoundingMode.HALF_UP
+                        )
+                );
+            }
+        }
+
+        return new AnalyticsResponse(
+            unit.name().toLowerCase(),
+            start.toLocalDate(),
+            end.toLocalDate().minusDays(1),
+            List.copyOf(points.values())
+        );
+    }
+
+    private static AnalyticsResponse.Point emptyPoint(LocalDateTime bucket) {
+        Map<ProductCategory, Long> byCategory = new EnumMap<>(
+            ProductCategory.class
+        );
+        for (ProductCategory category : ProductCategory.values()) {
+            byCategory.put(category, 0L);
+        }
+        return new AnalyticsResponse.Point(
+            bucket,
+            0,
+            BigDecimal.ZERO,
+            BigDecimal.ZERO,
+            0,
+            byCategory
+        );
+    }
+}
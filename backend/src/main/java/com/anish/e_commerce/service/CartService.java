@@ -1,6 +1,8 @@
 package com.anish.e_commerce.service;
 
+import com.anish.e_commerce.cart.RedisCartStore;
 import com.anish.e_commerce.dto.CartItemResponse;
+import com.anish.e_commerce.dto.CartMutationRequest;
 import com.anish.e_commerce.model.Cart;
 import com.anish.e_commerce.model.CartItem;
 import com.anish.e_commerce.model.Product;
@@ -8,12 +10,19 @@ import com.anish.e_commerce.repo.CartItemRepo;
 import com.anish.e_commerce.repo.CartRepo;
 import com.anish.e_commerce.repo.ProductRepo;
 import com.anish.e_commerce.repo.UserRepo;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,12 +32,20 @@ public class CartService {
     private final CartItemRepo cartItemRepo;
     private final ProductRepo productRepo;
     private final UserRepo userRepo;
+    private final RedisCartStore redisCartStore;
 
     public List<CartItemResponse> getCartItemsByUsername(String username) {
+        if (redisCartStore.isEnabled()) {
+            return redisCartStore.items(username);
+        }
         return cartItemRepo.findItemsByUsername(username);
     }
 
+    // Checkout reads the cart from Postgres, so pending edits go first
     public Cart getCartByUsername(String username) {
+        if (redisCartStore.isEnabled()) {
+            redisCartStore.flush(username);
+        }
         return cartRepo.findByUser_Username(username).orElseGet(() -> {
             Cart newCart = new Cart();
             newCart.setUser(userRepo.findByUsername(username).orElseThrow());
@@ -38,6 +55,9 @@ public class CartService {
     }
 
     public List<CartItemResponse> addOrUpdateItem(String username, int productId, int quantity) {
+        if (redisCartStore.isEnabled()) {
+            return redisCartStore.put(username, productId, quantity);
+        }
         Product product = productRepo.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Invalid Product ID"));
 
@@ -61,13 +81,70 @@ public class CartService {
     }
 
     public List<CartItemResponse> removeItem(String username, int productId) {
+        if (redisCartStore.isEnabled()) {
+            return redisCartStore.remove(username, productId);
+        }
         Cart cart = getCartByUsername(username);
         cart.getItems().removeIf(item -> item.getProduct().getId() == productId);
         cartRepo.save(cart);
         return cartItemRepo.findItemsByUsername(username);
     }
 
+    // Applies a whole batch of edits, quantity 0 removing a product; the
+    // last edit wins when a product appears more than once
+    @Transactional
+    public List<CartItemResponse> applyMutations(String username, List<CartMutationRequest> mutations) {
+        Map<Integer, Integer> changes = new LinkedHashMap<>();
+        mutations.forEach(m -> changes.put(m.getProductId(), m.getQuantity()));
+        if (redisCartStore.isEnabled()) {
+            return redisCartStore.apply(username, changes);
+        }
+
+        // 1. Validate every product being set with one query
+        Set<Integer> wanted = new HashSet<>();
+        changes.forEach((productId, quantity) -> {
+            if (quantity > 0) {
+                wanted.add(productId);
+            }
+        });
+        Map<Integer, Product> products = productRepo.findAllById(wanted).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Integer productId : wanted) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Invalid Product ID: " + productId);
+            }
+        }
+
+        // 2. Apply them to the cart as loaded, then write once
+        Cart cart = getCartByUsername(username);
+        Map<Integer, CartItem> items = cart.getItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity(), (a, b) -> a));
+        changes.forEach((productId, quantity) -> {
+            CartItem item = items.get(productId);
+            if (quantity == 0) {
+                if (item != null) {
+                    cart.getItems().remove(item);
+                }
+            } else if (item != null) {
+                item.setQuantity(quantity);
+            } else {
+                CartItem newItem = new CartItem();
+                newItem.setCart(cart);
+                newItem.setProduct(products.get(productId));
+                newItem.setQuantity(quantity);
+                cart.getItems().add(newItem);
+            }
+        });
+
+        cartRepo.save(cart);
+        return cartItemRepo.findItemsByUsername(username);
+    }
+
     public void clearCart(String username) {
+        // Postgres is cleared too, in case the hash is lost before a flush
+        if (redisCartStore.isEnabled()) {
+            redisCartStore.clear(username);
+        }
         Cart cart = getCartByUsername(username);
         cart.getItems().clear();
         cartRepo.save(cart);
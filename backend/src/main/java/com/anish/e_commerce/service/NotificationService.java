@@ -1,47 +1,143 @@
 package com.anish.e_commerce.service;
 
-import com.anish.e_commerce.model.Notification;
-import com.anish.e_commerce.model.Product;
-import com.anish.e_commerce.model.Wishlist;
+import com.anish.e_commerce.dto.CursorPage;
+import com.anish.e_commerce.dto.NotificationResponse;
+import com.anish.e_commerce.notification.UnreadCounter;
+import com.anish.e_commerce.repo.NotificationJdbcRepo;
+import com.anish.e_commerce.repo.NotificationJdbcRepo.Deleted;
 import com.anish.e_commerce.repo.NotificationRepo;
-import com.anish.e_commerce.repo.WishlistRepo;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int PURGE_BATCH = 1_000;
+
     private final NotificationRepo notificationRepo;
-    private final WishlistRepo wishlistRepo;
+    private final NotificationJdbcRepo notificationJdbcRepo;
+    private final UnreadCounter unreadCounter;
+    private final Duration retention;
 
-    public void notifyUsersOnRestock(Product product) {
-        // Find all users who have this product in their wishlist
-        List<Wishlist> wishlists = wishlistRepo.findByProductId(
-            product.getId()
-        );
+    public NotificationService(
+        NotificationRepo notificationRepo,
+        NotificationJdbcRepo notificationJdbcRepo,
+        UnreadCounter unreadCounter,
+        @Value("${notifications.retention.max-age:90d}") Duration retention
+    ) {
+        this.notificationRepo = notificationRepo;
+        this.notificationJdbcRepo = notificationJdbcRepo;
+        this.unreadCounter = unreadCounter;
+        this.retention = retention;
+    }
 
-        for (Wishlist item : wishlists) {
-            Notification notification = new Notification();
-            notification.setUser(item.getUser());
-            notification.setMessage(
-                "Good news! " + product.getName() + " is back in stock."
+    public CursorPage<NotificationResponse> getUserNotifications(
+        Long userId,
+        String cursor,
+        int size
+    ) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to learn whether another slice exists
+        Pageable window = PageRequest.of(0, limit + 1);
+
+        List<NotificationResponse> rows = cursor == null || cursor.isBlank()
+            ? notificationRepo.findNewest(userId, window)
+            : notificationRepo.findNewestBefore(
+                userId,
+                decode(cursor),
+                window
             );
-            notificationRepo.save(notification);
+
+        boolean hasNext = rows.size() > limit;
+        List<NotificationResponse> content = hasNext
+            ? rows.subList(0, limit)
+            : rows;
+        String nextCursor = hasNext
+            ? String.valueOf(content.get(limit - 1).getId())
+            : null;
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+
+    // Counter changes wait for the commit, so a rollback leaves it alone
+    @Transactional
+    public void markAsRead(Long userId, Long notificationId) {
+        // Only a real unread -> read change moves the counter
+        if (notificationRepo.markRead(notificationId, userId) == 1) {
+            afterCommit(() -> unreadCounter.add(List.of(userId), -1));
         }
     }
 
-    public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepo.findByUserIdOrderByCreatedAtDesc(userId);
+    // Recounted rather than set to 0: a notification committed after this
+    // update's snapshot is still unread
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepo.markAllRead(userId);
+        afterCommit(() -> unreadCounter.invalidate(userId));
+        return updated;
     }
 
-    public void markAsRead(Long notificationId) {
-        notificationRepo
-            .findById(notificationId)
-            .ifPresent(notification -> {
-                notification.setRead(true);
-                notificationRepo.save(notification);
-            });
+    // Deletes in small batches so the table never takes a long lock
+    @Scheduled(
+        fixedDelayString = "${notifications.retention.sweep-interval:1h}"
+    )
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        List<Deleted> deleted;
+        do {
+            deleted = notificationJdbcRepo.deleteOlderThan(cutoff, PURGE_BATCH);
+            List<Long> unread = new ArrayList<>();
+            for (Deleted row : deleted) {
+                if (row.unread()) {
+                    unread.add(row.userId());
+                }
+            }
+            unreadCounter.add(unread, -1);
+            total += deleted.size();
+        } while (deleted.size() == PURGE_BATCH);
+
+        if (total > 0) {
+            log.info("Purged {} notifications older than {}", total, cutoff);
+        }
+    }
+
+    private static Long decode(String cursor) {
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
     }
 }
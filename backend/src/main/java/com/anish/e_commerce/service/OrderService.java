@@ -1,23 +1,31 @@
 package com.anish.e_commerce.service;
 
+import com.anish.e_commerce.dto.OrderDetailResponse;
+import com.anish.e_commerce.dto.OrderSummaryResponse;
+import com.anish.e_commerce.dto.SliceResponse;
+import com.anish.e_commerce.event.OrderCompletedEvent;
 import com.anish.e_commerce.model.*;
 import com.anish.e_commerce.repo.OrderRepo;
-import com.anish.e_commerce.repo.ProductRepo;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final OrderRepo orderRepo;
-    private final ProductRepo productRepo;
     private final CartService cartService;
     private final PaymentService paymentService;
+    private final StockReservationService stockReservationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Order placeOrder(String username) {
@@ -49,21 +57,14 @@ public class OrderService {
                     .getPrice()
                     .multiply(BigDecimal.valueOf(item.getQuantity()))
             );
-
-            if (product.getQuantity() < item.getQuantity()) {
-                throw new RuntimeException(
-                    "Sorry, " +
-                        product.getName() +
-                        " does not have enough stock."
-                );
-            }
-
-            // Stock is NO LONGER deducted here. We wait for payment confirmation.
         }
 
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderRepo.save(order);
 
+        // Held atomically now; released again if payment fails or expires
+        stockReservationService.reserve(savedOrder);
+
         try {
             String razorpayOrderId = paymentService.createRazorpayOrder(
                 totalAmount,
@@ -91,26 +92,11 @@ public class OrderService {
 
         order.setStatus("COMPLETED");
 
-        // Deduct stock based on the user's current cart items
-        Cart cart = cartService.getCartByUsername(
-            order.getUser().getUsername()
-        );
-        for (CartItem item : cart.getItems()) {
-            Product product = item.getProduct();
-            int newQuantity = product.getQuantity() - item.getQuantity();
-
-            if (newQuantity < 0) {
-                newQuantity = 0; // Prevent negative stock
-            }
-
-            product.setQuantity(newQuantity);
-            if (newQuantity == 0) {
-                product.setAvailable(false);
-            }
-            productRepo.save(product);
-        }
+        // The held stock becomes permanent; the cart is no longer consulted
+        stockReservationService.commit(order);
 
         orderRepo.save(order);
+        eventPublisher.publishEvent(OrderCompletedEvent.of(order));
 
         // Clear the cart for the user
         cartService.clearCart(order.getUser().getUsername());
@@ -125,10 +111,34 @@ public class OrderService {
         if ("PENDING".equals(order.getStatus())) {
             order.setStatus("REJECTED");
             orderRepo.save(order);
+            stockReservationService.release(order);
         }
     }
 
-    public List<Order> getUserOrders(String username) {
-        return orderRepo.findByUser_UsernameOrderByCreatedAtDesc(username);
+    public SliceResponse<OrderSummaryResponse> getUserOrders(
+        String username,
+        int page,
+        int size
+    ) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Slice<OrderSummaryResponse> result = orderRepo.findSummaries(
+            username,
+            PageRequest.of(Math.max(page, 0), limit)
+        );
+        return new SliceResponse<>(
+            result.getContent(),
+            result.getNumber(),
+            result.getSize(),
+            result.hasNext()
+        );
+    }
+
+    public OrderDetailResponse getOrderDetail(String username, Long orderId) {
+        // Someone else's order looks exactly like a missing one
+        Order order = orderRepo
+            .findDetailById(orderId)
+            .filter(o -> o.getUser().getUsername().equals(username))
+            .orElseThrow(() -> new RuntimeException("Order not found"));
+        return OrderDetailResponse.from(order);
     }
 }
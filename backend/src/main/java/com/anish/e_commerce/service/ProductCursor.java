@@ -0,0 +1,67 @@
+package com.anish.e_commerce.service;
+
+import com.anish.e_commerce.dto.ProductCardResponse;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+// Opaque seek position for catalog scrolling: the sort key of the last row
+// plus its id as a tie-breaker, Base64url encoded. A row without a sort key
+// (created_at and price are nullable) leaves the value empty.
+record ProductCursor(Sort sort, String value, int id) {
+    enum Sort {
+        NEWEST,
+        PRICE,
+    }
+
+    static ProductCursor after(ProductCardResponse last, Sort sort) {
+        String value;
+        if (sort == Sort.NEWEST) {
+            value = last.getCreatedAt() != null
+                ? String.valueOf(last.getCreatedAt().getTime())
+                : "";
+        } else {
+            value = last.getPrice() != null
+                ? last.getPrice().toPlainString()
+                : "";
+        }
+        return new ProductCursor(sort, value, last.getId());
+    }
+
+    static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(
+                Base64.getUrlDecoder().decode(cursor),
+                StandardCharsets.UTF_8
+            );
+            String[] parts = raw.split(":", 3);
+            return new ProductCursor(
+                Sort.valueOf(parts[0]),
+                parts[1],
+                Integer.parseInt(parts[2])
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sort.name() + ":" + value + ":" + id;
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean hasValue() {
+        return !value.isEmpty();
+    }
+
+    Date createdAt() {
+        return new Date(Long.parseLong(value));
+    }
+
+    BigDecimal price() {
+        return new BigDecimal(value);
+    }
+}
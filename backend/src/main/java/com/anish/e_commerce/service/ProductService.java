@@ -1,24 +1,40 @@
 package com.anish.e_commerce.service;
 
+import com.anish.e_commerce.cache.ProductCacheIndex;
+import com.anish.e_commerce.cache.ProductCacheKeys;
+import com.anish.e_commerce.config.ProductSearchIndexInitializer;
+import com.anish.e_commerce.dto.CursorPage;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.dto.SliceResponse;
+import com.anish.e_commerce.event.ProductChangedEvent;
+import com.anish.e_commerce.event.ProductRestockedEvent;
+import com.anish.e_commerce.inventory.HotSkuInventory;
 import com.anish.e_commerce.model.Product;
 import com.anish.e_commerce.repo.ProductRepo;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 50;
+
     @Autowired
     private ProductRepo productRepo;
 
@@ -26,12 +42,76 @@ public class ProductService {
     private ImageHandleService imageHandleService;
 
     @Autowired
-    private NotificationService notificationService;
+    private ProductCacheIndex productCacheIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductSearchIndexInitializer searchIndex;
 
-    @Cacheable(value = "products", key = "'page-' + #page + '-size-' + #size")
-    public Page<Product> getAllProducts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return productRepo.findAll(pageable);
+    @Autowired
+    private HotSkuInventory hotSkuInventory;
+
+    public Page<ProductCardResponse> getAllProducts(int page, int size) {
+        return productCacheIndex.getOrLoad(
+            ProductCacheKeys.page(page, size),
+            () -> productRepo.findAllCards(PageRequest.of(page, size)),
+            result -> ids(result.getContent())
+        );
+    }
+
+    public CursorPage<ProductCardResponse> scrollProducts(
+        String cursor,
+        int size,
+        String sort
+    ) {
+        ProductCursor.Sort order = "price".equalsIgnoreCase(sort)
+            ? ProductCursor.Sort.PRICE
+            : ProductCursor.Sort.NEWEST;
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to learn whether another slice exists
+        Pageable window = PageRequest.of(0, limit + 1);
+
+        List<ProductCardResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = order == ProductCursor.Sort.PRICE
+                ? productRepo.findCheapestFirst(window)
+                : productRepo.findNewestFirst(window);
+        } else {
+            ProductCursor after = ProductCursor.decode(cursor);
+            if (after.sort() != order) {
+                throw new IllegalArgumentException(
+                    "Cursor does not match sort order"
+                );
+            }
+            if (order == ProductCursor.Sort.PRICE) {
+                rows = after.hasValue()
+                    ? productRepo.findCheapestAfter(
+                        after.price(),
+                        after.id(),
+                        window
+                    )
+                    : productRepo.findUnpricedAfter(after.id(), window);
+            } else {
+                rows = after.hasValue()
+                    ? productRepo.findNewestAfter(
+                        after.createdAt(),
+                        after.id(),
+                        window
+                    )
+                    : productRepo.findUndatedAfter(after.id(), window);
+            }
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<ProductCardResponse> content = hasNext
+            ? rows.subList(0, limit)
+            : rows;
+        String nextCursor = hasNext
+            ? ProductCursor.after(content.get(limit - 1), order).encode()
+            : null;
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasNext);
     }
 
     @Cacheable(value = "product", key = "#id")
@@ -43,29 +123,54 @@ public class ProductService {
             );
     }
 
-    @Cacheable(
-        value = "products",
-        key = "{#keyword, #category, #minPrice, #maxPrice, #available, #sortDir}"
-    )
-    public List<Product> getFilteredProducts(
+    // Cached per page so memory and payload scale with what is rendered
+    public SliceResponse<ProductCardResponse> getFilteredProducts(
         String keyword,
         Product.ProductCategory category,
         BigDecimal minPrice,
         BigDecimal maxPrice,
         Boolean available,
-        String sortDir
+        String sortDir,
+        int page,
+        int size
     ) {
-        Sort sort = "desc".equalsIgnoreCase(sortDir)
+        String direction = "desc".equalsIgnoreCase(sortDir) ? "desc" : "asc";
+        Sort sort = direction.equals("desc")
             ? Sort.by("price").descending()
             : Sort.by("price").ascending();
+        // Keyed by what is actually queried, so out-of-range values share
+        // an entry instead of each adding one
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
 
-        return productRepo.filterProducts(
-            keyword,
-            category,
-            minPrice,
-            maxPrice,
-            available,
-            sort
+        return productCacheIndex.getOrLoad(
+            ProductCacheKeys.filter(
+                keyword,
+                category,
+                minPrice,
+                maxPrice,
+                available,
+                direction,
+                pageNumber,
+                limit
+            ),
+            () -> {
+                Slice<ProductCardResponse> result = productRepo.filterProducts(
+                    keyword,
+                    category,
+                    minPrice,
+                    maxPrice,
+                    available,
+                    PageRequest.of(pageNumber, limit, sort)
+                );
+                return new SliceResponse<>(
+                    List.copyOf(result.getContent()),
+                    result.getNumber(),
+                    result.getSize(),
+                    result.hasNext()
+                );
+            },
+            slice -> ids(slice.getContent())
         );
     }
 
@@ -86,20 +191,21 @@ public class ProductService {
         if (product.getQuantity() == 0) {
             product.setAvailable(false);
         }
+
+        // Rule 4: Only a stock movement marks a product sold out, and a
+        // listed product no longer is
+        if (product.isAvailable()) {
+            product.setSoldOut(false);
+        }
     }
 
-    @CacheEvict(value = "products", allEntries = true)
     public Product addProduct(Product product) throws IOException {
         enforceStockRules(product);
-        return productRepo.save(product);
+        Product saved = productRepo.save(product);
+        publishChange(saved.getId(), ProductChangedEvent.Type.ADDED);
+        return saved;
     }
 
-    @Caching(
-        evict = {
-            @CacheEvict(value = "products", allEntries = true),
-            @CacheEvict(value = "product", key = "#updatedProduct.id"),
-        }
-    )
     public Product updateProduct(Product updatedProduct) throws IOException {
         Product existing = productRepo
             .findById(updatedProduct.getId())
@@ -121,9 +227,6 @@ public class ProductService {
         existing.setQuantity(updatedProduct.getQuantity());
         enforceStockRules(existing);
 
-        if (isRestocked && updatedProduct.isAvailable()) {
-            notificationService.notifyUsersOnRestock(existing);
-        }
         if (!updatedProduct.isAvailable()) {
             existing.setQuantity(0);
         }
@@ -140,15 +243,20 @@ public class ProductService {
         if (updatedProduct.getImageUrl() != null) {
             existing.setImageUrl(updatedProduct.getImageUrl());
         }
-        return productRepo.save(existing);
-    }
+        Product saved = productRepo.save(existing);
+        hotSkuInventory.reseed(saved.getId(), saved.getQuantity());
+        publishChange(saved.getId(), ProductChangedEvent.Type.UPDATED);
 
-    @Caching(
-        evict = {
-            @CacheEvict(value = "products", allEntries = true),
-            @CacheEvict(value = "product", key = "#id"),
+        // Wishlist fan-out runs in the background so this stays fast however
+        // many users are waiting on the product
+        if (isRestocked && updatedProduct.isAvailable()) {
+            eventPublisher.publishEvent(
+                new ProductRestockedEvent(saved.getId(), saved.getName())
+            );
         }
-    )
+        return saved;
+    }
+
     public void deleteProduct(int id) {
         Product existing = productRepo
             .findById(id)
@@ -159,9 +267,61 @@ public class ProductService {
             imageHandleService.deleteImageByUrl(existing.getImageUrl());
         }
         productRepo.deleteById(id);
+        publishChange(id, ProductChangedEvent.Type.DELETED);
+    }
+
+    // Cache invalidation is driven by ProductCacheIndex listening for these
+    private void publishChange(int productId, ProductChangedEvent.Type type) {
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, type));
+    }
+
+    public List<ProductCardResponse> searchProducts(String keyword) {
+        if (!searchIndex.isReady()) {
+            return productRepo.searchProducts(keyword);
+        }
+
+        String query = toPrefixQuery(keyword);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        // Rank on the index, then fetch just the card columns in rank order
+        List<Integer> rankedIds = productRepo.fullTextSearchIds(
+            query,
+            SEARCH_LIMIT
+        );
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, ProductCardResponse> cards = productRepo
+            .findCardsByIdIn(rankedIds)
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    ProductCardResponse::getId,
+                    Function.identity()
+                )
+            );
+        return rankedIds
+            .stream()
+            .map(cards::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    private static List<Integer> ids(List<ProductCardResponse> cards) {
+        return cards.stream().map(ProductCardResponse::getId).toList();
     }
 
-    public List<Product> searchProducts(String keyword) {
-        return productRepo.searchProducts(keyword);
+    // "duck key" -> "duck:* & key:*" so partially typed words still match.
+    // Only letters and digits survive, which keeps tsquery syntax out.
+    static String toPrefixQuery(String keyword) {
+        if (keyword == null) return "";
+        return Arrays.stream(
+            keyword.toLowerCase().split("[^\\p{L}\\p{N}]+")
+        )
+            .filter(token -> !token.isEmpty())
+            .map(token -> token + ":*")
+            .collect(Collectors.joining(" & "));
     }
 }
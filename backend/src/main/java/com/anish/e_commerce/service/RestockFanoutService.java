@@ -0,0 +1,140 @@
+package com.anish.e_commerce.service;
+
+import com.anish.e_commerce.dto.RestockFanoutProgress;
+import com.anish.e_commerce.event.ProductRestockedEvent;
+import com.anish.e_commerce.dto.UserNotification;
+import com.anish.e_commerce.notification.NotificationHub;
+import com.anish.e_commerce.notification.UnreadCounter;
+import com.anish.e_commerce.repo.NotificationJdbcRepo;
+import com.anish.e_commerce.repo.NotificationJdbcRepo.Chunk;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Turns a restock into wishlist notifications off the admin's request thread.
+// Each chunk is one INSERT ... SELECT that commits on its own, so memory and
+// lock time stay flat however long the wishlist is.
+@Slf4j
+@Service
+public class RestockFanoutService {
+
+    private static final int KEPT_JOBS = 50;
+
+    private final NotificationJdbcRepo notificationJdbcRepo;
+    private final NotificationHub notificationHub;
+    private final UnreadCounter unreadCounter;
+    private final int chunkSize;
+
+    // Insertion order; the oldest job is dropped once KEPT_JOBS is reached
+    private final Map<String, RestockFanoutProgress> jobs =
+        new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<String, RestockFanoutProgress> eldest
+            ) {
+                return size() > KEPT_JOBS;
+            }
+        };
+
+    public RestockFanoutService(
+        NotificationJdbcRepo notificationJdbcRepo,
+        NotificationHub notificationHub,
+        UnreadCounter unreadCounter,
+        @Value("${notifications.fanout.chunk-size:1000}") int chunkSize
+    ) {
+        this.notificationJdbcRepo = notificationJdbcRepo;
+        this.notificationHub = notificationHub;
+        this.unreadCounter = unreadCounter;
+        this.chunkSize = chunkSize;
+    }
+
+    // Only runs once the product update has committed
+    @Async("fanoutExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductRestocked(ProductRestockedEvent event) {
+        RestockFanoutProgress job = new RestockFanoutProgress(
+            UUID.randomUUID().toString(),
+            event.productId(),
+            event.productName(),
+            "RUNNING",
+            0,
+            LocalDateTime.now(),
+            null
+        );
+        save(job);
+
+        String message =
+            "Good news! " + event.productName() + " is back in stock.";
+        long afterId = 0;
+        try {
+            while (true) {
+                Chunk chunk = notificationJdbcRepo.insertRestockChunk(
+                    event.productId(),
+                    afterId,
+                    chunkSize,
+                    message
+                );
+                int rows = chunk.inserted().size();
+                unreadCounter.add(
+                    chunk
+                        .inserted()
+                        .stream()
+                        .map(UserNotification::userId)
+                        .toList(),
+                    1
+                );
+                notificationHub.publish(chunk.inserted());
+                job.setNotified(job.getNotified() + rows);
+                save(job);
+                if (rows < chunkSize) {
+                    break;
+                }
+                afterId = chunk.lastWishlistId();
+            }
+            job.setStatus("DONE");
+        } catch (RuntimeException e) {
+            // Chunks already written stay; the count shows how far it got
+            log.error(
+                "Restock fan-out for product {} failed after {} notifications",
+                event.productId(),
+                job.getNotified(),
+                e
+            );
+            job.setStatus("FAILED");
+        }
+        job.setFinishedAt(LocalDateTime.now());
+        save(job);
+    }
+
+    public List<RestockFanoutProgress> recentJobs() {
+        synchronized (jobs) {
+            List<RestockFanoutProgress> result = new ArrayList<>(jobs.size());
+            jobs.values().forEach(job -> result.add(0, job));
+            return result;
+        }
+    }
+
+    // Readers get copies so they never see a job mid-update
+    private void save(RestockFanoutProgress job) {
+        RestockFanoutProgress snapshot = new RestockFanoutProgress(
+            job.getJobId(),
+            job.getProductId(),
+            job.getProductName(),
+            job.getStatus(),
+            job.getNotified(),
+            job.getStartedAt(),
+            job.getFinishedAt()
+        );
+        synchronized (jobs) {
+            jobs.put(job.getJobId(), snapshot);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.anish.e_commerce.service;
+
+import com.anish.e_commerce.event.StockChangedEvent;
+import com.anish.e_commerce.inventory.HotSkuInventory;
+import com.anish.e_commerce.model.Order;
+import com.anish.e_commerce.model.OrderItem;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.StockReservation;
+import com.anish.e_commerce.model.StockReservation.Source;
+import com.anish.e_commerce.model.StockReservation.Status;
+import com.anish.e_commerce.repo.OrderRepo;
+import com.anish.e_commerce.repo.StockJdbcRepo;
+import com.anish.e_commerce.repo.StockJdbcRepo.HeldStock;
+import com.anish.e_commerce.repo.StockReservationRepo;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Every operation here costs a constant number of Postgres round trips,
+// however many lines the order has: products are updated in one JDBC batch
+// in id order, and reservations are finished with one UPDATE ... RETURNING
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private static final int EXPIRY_BATCH = 200;
+
+    private final StockReservationRepo reservationRepo;
+    private final StockJdbcRepo stockJdbcRepo;
+    private final OrderRepo orderRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotSkuInventory hotSkuInventory;
+    private final Duration ttl;
+
+    public StockReservationService(
+        StockReservationRepo reservationRepo,
+        StockJdbcRepo stockJdbcRepo,
+        OrderRepo orderRepo,
+        ApplicationEventPublisher eventPublisher,
+        HotSkuInventory hotSkuInventory,
+        @Value("${stock.reservation.ttl:15m}") Duration ttl
+    ) {
+        this.reservationRepo = reservationRepo;
+        this.stockJdbcRepo = stockJdbcRepo;
+        this.orderRepo = orderRepo;
+        this.eventPublisher = eventPublisher;
+        this.hotSkuInventory = hotSkuInventory;
+        this.ttl = ttl;
+    }
+
+    // Runs inside the caller's transaction so a shortfall rolls back the
+    // whole order, including decrements already made for earlier items
+    @Transactional
+    public List<StockReservation> reserve(Order order) {
+        // 1. One line per product, keyed in id order
+        SortedMap<Integer, Integer> quantities = new TreeMap<>();
+        Map<Integer, Product> products = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            Product product = item.getProduct();
+            quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
+            products.put(product.getId(), product);
+        }
+
+        // 2. Take it all; any shortfall aborts the order
+        Taken taken = take(quantities);
+        if (!taken.missing().isEmpty()) {
+            throw new RuntimeException(
+                "Sorry, " +
+                    products.get(taken.missing().get(0)).getName() +
+                    " does not have enough stock."
+            );
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<StockReservation> reservations = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            StockReservation reservation = new StockReservation();
+            reservation.setOrder(order);
+            reservation.setProductId(productId);
+            reservation.setQuantity(quantity);
+            reservation.setSource(taken.sources().get(productId));
+            reservation.setExpiresAt(expiresAt);
+            reservations.add(reservation);
+        });
+
+        publishStockChange(taken.fromDatabase());
+        return reservationRepo.saveAll(reservations);
+    }
+
+    // Stock was already taken at checkout; paying just makes it permanent
+    @Transactional
+    public void commit(Order order) {
+        List<HeldStock> committed = stockJdbcRepo.finishActive(
+            order.getId(),
+            Status.COMMITTED
+        );
+        for (HeldStock held : committed) {
+            markSold(held.source(), held.productId(), held.quantity());
+        }
+
+        // Paid after a hold expired: take that stock again if it is there
+        long products = order
+            .getItems()
+            .stream()
+            .map(item -> item.getProduct().getId())
+            .distinct()
+            .count();
+        if (committed.size() < products) {
+            retake(order);
+        }
+    }
+
+    @Transactional
+    public void release(Order order) {
+        giveBack(stockJdbcRepo.finishActive(order.getId(), Status.RELEASED));
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval:60s}")
+    @Transactional
+    public void releaseExpired() {
+        List<HeldStock> expired = stockJdbcRepo.releaseExpired(
+            LocalDateTime.now(),
+            EXPIRY_BATCH
+        );
+        if (expired.isEmpty()) {
+            return;
+        }
+        giveBack(expired);
+
+        Set<Long> orderIds = new TreeSet<>();
+        expired.forEach(held -> orderIds.add(held.orderId()));
+        orderRepo.expirePending(orderIds);
+    }
+
+    private void retake(Order order) {
+        List<StockReservation> released =
+            reservationRepo.findByOrder_IdAndStatus(
+                order.getId(),
+                Status.RELEASED
+            );
+        SortedMap<Integer, Integer> quantities = new TreeMap<>();
+        for (StockReservation r : released) {
+            quantities.put(r.getProductId(), r.getQuantity());
+        }
+
+        Taken taken = take(quantities);
+        for (StockReservation r : released) {
+            Source source = taken.sources().get(r.getProductId());
+            if (source == null) {
+                log.error(
+                    "Order {} was paid after its hold expired and product {} " +
+                        "no longer has the stock",
+                    order.getId(),
+                    r.getProductId()
+                );
+                continue;
+            }
+            reservationRepo.transition(
+                r.getId(),
+                Status.RELEASED,
+                Status.COMMITTED
+            );
+            markSold(source, r.getProductId(), r.getQuantity());
+        }
+        publishStockChange(taken.fromDatabase());
+    }
+
+    private void giveBack(List<HeldStock> released) {
+        // Redis holds go back to their counter; a counter that is gone means
+        // the hold was moved into Postgres when the SKU was unflagged
+        SortedMap<Integer, Integer> toDatabase = new TreeMap<>();
+        for (HeldStock held : released) {
+            boolean inRedis =
+                held.source() == Source.REDIS &&
+                hotSkuInventory.release(held.productId(), held.quantity());
+            if (!inRedis) {
+                toDatabase.merge(
+                    held.productId(),
+                    held.quantity(),
+                    Integer::sum
+                );
+            }
+        }
+        stockJdbcRepo.giveBackStock(toDatabase);
+        publishStockChange(toDatabase.keySet());
+    }
+
+    // Hot SKUs are counted in Redis; everything else, or a hot SKU whose
+    // counter is gone, goes through one batched conditional decrement
+    private Taken take(SortedMap<Integer, Integer> quantities) {
+        Map<Integer, Source> sources = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        SortedMap<Integer, Integer> fromDatabase = new TreeMap<>();
+
+        quantities.forEach((productId, quantity) -> {
+            long held = hotSkuInventory.isHot(productId)
+                ? hotSkuInventory.reserve(productId, quantity)
+                : HotSkuInventory.NOT_TRACKED;
+            if (held == 1) {
+                sources.put(productId, Source.REDIS);
+            } else if (held == 0) {
+                missing.add(productId);
+            } else {
+                fromDatabase.put(productId, quantity);
+            }
+        });
+
+        missing.addAll(stockJdbcRepo.takeStock(fromDatabase));
+        Set<Integer> taken = new TreeSet<>(fromDatabase.keySet());
+        taken.removeAll(missing);
+        taken.forEach(productId -> sources.put(productId, Source.DATABASE));
+        return new Taken(sources, missing, taken);
+    }
+
+    // Postgres holds are already deducted; Redis sales reach Postgres on
+    // the next reconcile
+    private void markSold(Source source, int productId, int quantity) {
+        if (source == Source.REDIS) {
+            hotSkuInventory.commit(productId, quantity);
+        }
+    }
+
+    private void publishStockChange(Set<Integer> productIds) {
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(
+                new StockChangedEvent(Set.copyOf(productIds))
+            );
+        }
+    }
+
+    private record Taken(
+        Map<Integer, Source> sources,
+        List<Integer> missing,
+        Set<Integer> fromDatabase
+    ) {}
+}
@@ -0,0 +1,202 @@
+package com.anish.e_commerce.service;
+
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.dto.TrendingProductResponse;
+import com.anish.e_commerce.event.OrderCompletedEvent;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.repo.ProductRepo;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Best sellers over sliding windows, kept as Redis sorted sets of units
+// sold per time slot (product id -> units). A window is the union of its
+// latest slots, so reads never touch order history.
+//
+//   trending:5m:{slot}[:{category}]  five-minute slots, kept 2 hours
+//   trending:1h:{slot}[:{category}]  hourly slots, kept 8 days
+@Slf4j
+@Service
+public class TrendingService {
+
+    private static final String KEY_PREFIX = "trending:";
+    private static final int MAX_LIMIT = 50;
+    private static final Duration VIEW_TTL = Duration.ofSeconds(30);
+
+    private enum Slot {
+        FIVE_MINUTES("5m", Duration.ofMinutes(5), Duration.ofHours(2)),
+        HOUR("1h", Duration.ofHours(1), Duration.ofDays(8));
+
+        private final String label;
+        private final long seconds;
+        private final long keepSeconds;
+
+        Slot(String label, Duration length, Duration keep) {
+            this.label = label;
+            this.seconds = length.toSeconds();
+            this.keepSeconds = keep.toSeconds();
+        }
+
+        long current() {
+            return Instant.now().getEpochSecond() / seconds;
+        }
+    }
+
+    private enum Window {
+        LAST_HOUR("1h", Slot.FIVE_MINUTES, 12),
+        LAST_DAY("24h", Slot.HOUR, 24),
+        LAST_WEEK("7d", Slot.HOUR, 168);
+
+        private final String label;
+        private final Slot slot;
+        private final int slots;
+
+        Window(String label, Slot slot, int slots) {
+            this.label = label;
+            this.slot = slot;
+            this.slots = slots;
+        }
+
+        static Window parse(String value) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(value)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Window must be 1h, 24h or 7d");
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepo productRepo;
+
+    public TrendingService(
+        StringRedisTemplate redisTemplate,
+        ProductRepo productRepo
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.productRepo = productRepo;
+    }
+
+    // After commit, so a rolled back payment is never counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCompleted(OrderCompletedEvent event) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) conn -> {
+                StringRedisConnection redis = (StringRedisConnection) conn;
+                for (Slot slot : Slot.values()) {
+                    long current = slot.current();
+                    for (OrderCompletedEvent.Line line : event.lines()) {
+                        String member = String.valueOf(line.productId());
+                        String overall = key(slot, current, null);
+                        String byCategory = key(slot, current, line.category());
+                        for (String key : List.of(overall, byCategory)) {
+                            redis.zIncrBy(key, line.quantity(), member);
+                            redis.expire(key, slot.keepSeconds);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // The leaderboard is best effort; the order itself is done
+            log.warn(
+                "Failed to count order {} as trending",
+                event.orderId(),
+                e
+            );
+        }
+    }
+
+    @Cacheable(
+        value = "trending",
+        key = "#window.toLowerCase() + ':' + #category + ':' + #limit"
+    )
+    public List<TrendingProductResponse> getTrending(
+        String window,
+        ProductCategory category,
+        int limit
+    ) {
+        Window range = Window.parse(window);
+        int top = Math.min(Math.max(limit, 1), MAX_LIMIT);
+
+        // 1. Sum the window's slots server-side into a short-lived view
+        long current = range.slot.current();
+        List<String> slots = new ArrayList<>(range.slots);
+        for (int i = 0; i < range.slots; i++) {
+            slots.add(key(range.slot, current - i, category));
+        }
+        String view =
+            KEY_PREFIX +
+            "view:" +
+            range.label +
+            ":" +
+            (category != null ? category.name() : "ALL") +
+            ":" +
+            current;
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(view))) {
+            redisTemplate
+                .opsForZSet()
+                .unionAndStore(
+                    slots.get(0),
+                    slots.subList(1, slots.size()),
+                    view
+                );
+            redisTemplate.expire(view, VIEW_TTL);
+        }
+        Set<TypedTuple<String>> ranked = redisTemplate
+            .opsForZSet()
+            .reverseRangeWithScores(view, 0, top - 1);
+        if (ranked == null || ranked.isEmpty()) {
+            return List.of();
+        }
+
+        // 2. One query for the cards, then back into rank order
+        List<Integer> ids = ranked
+            .stream()
+            .map(tuple -> Integer.valueOf(tuple.getValue()))
+            .toList();
+        Map<Integer, ProductCardResponse> cards = productRepo
+            .findCardsByIdIn(ids)
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    ProductCardResponse::getId,
+                    Function.identity()
+                )
+            );
+        List<TrendingProductResponse> result = new ArrayList<>();
+        for (TypedTuple<String> tuple : ranked) {
+            ProductCardResponse card = cards.get(
+                Integer.valueOf(tuple.getValue())
+            );
+            if (card != null) {
+                result.add(
+                    new TrendingProductResponse(
+                        card,
+                        Math.round(tuple.getScore())
+                    )
+                );
+            }
+        }
+        return result;
+    }
+
+    private static String key(Slot slot, long index, ProductCategory category) {
+        String key = KEY_PREFIX + slot.label + ":" + index;
+        return category != null ? key + ":" + category.name() : key;
+    }
+}
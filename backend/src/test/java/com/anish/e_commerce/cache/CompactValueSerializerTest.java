@@ -0,0 +1,119 @@
+package com.anish.e_commerce.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.dto.SliceResponse;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+public class CompactValueSerializerTest {
+
+    private final CompactValueSerializer plain = serializer(1 << 20);
+    private final CompactValueSerializer gzipped = serializer(0);
+
+    @Test
+    void testRoundTrip_ImmutableEmptyList() {
+        assertEquals(List.of(), roundTrip(List.of()));
+    }
+
+    @Test
+    void testRoundTrip_StreamToList() {
+        List<ProductCardResponse> cards = Stream.of(card(1), card(2)).toList();
+
+        assertEquals(cards, roundTrip(cards));
+    }
+
+    @Test
+    void testRoundTrip_Record() {
+        Bucket bucket = new Bucket("2026-10", 3, new BigDecimal("19.99"));
+
+        assertEquals(bucket, roundTrip(bucket));
+    }
+
+    @Test
+    void testRoundTrip_String() {
+        assertEquals("hello", roundTrip("hello"));
+    }
+
+    @Test
+    void testRoundTrip_PageImpl() {
+        PageImpl<ProductCardResponse> page = new PageImpl<>(
+            List.of(card(1), card(2)),
+            PageRequest.of(1, 2),
+            7
+        );
+
+        for (CompactValueSerializer serializer : List.of(plain, gzipped)) {
+            PageImpl<?> read = (PageImpl<?>) serializer.deserialize(
+                serializer.serialize(page)
+            );
+            assertEquals(page.getContent(), read.getContent());
+            assertEquals(1, read.getNumber());
+            assertEquals(2, read.getSize());
+            assertEquals(7, read.getTotalElements());
+        }
+    }
+
+    @Test
+    void testRoundTrip_SliceResponse() {
+        SliceResponse<ProductCardResponse> slice = new SliceResponse<>(
+            new ArrayList<>(List.of(card(1))),
+            0,
+            20,
+            true
+        );
+
+        assertEquals(slice, roundTrip(slice));
+    }
+
+    @Test
+    void testRoundTrip_NullValue() {
+        assertSame(
+            NullValue.INSTANCE,
+            plain.deserialize(plain.serialize(NullValue.INSTANCE))
+        );
+    }
+
+    // Checks both the plain and the gzipped encodings agree
+    private Object roundTrip(Object value) {
+        Object fromPlain = plain.deserialize(plain.serialize(value));
+        Object fromGzip = gzipped.deserialize(gzipped.serialize(value));
+        assertEquals(fromPlain, fromGzip);
+        return fromPlain;
+    }
+
+    private static CompactValueSerializer serializer(int compressAbove) {
+        return new CompactValueSerializer(
+            new SmileFactory(),
+            compressAbove,
+            new SimpleMeterRegistry(),
+            "test"
+        );
+    }
+
+    private static ProductCardResponse card(int id) {
+        return new ProductCardResponse(
+            id,
+            "Duck " + id,
+            "Quack",
+            new BigDecimal("9.99"),
+            "url",
+            true,
+            ProductCategory.values()[0],
+            new Date(1_700_000_000_000L)
+        );
+    }
+
+    record Bucket(String label, long orders, BigDecimal revenue) {}
+}
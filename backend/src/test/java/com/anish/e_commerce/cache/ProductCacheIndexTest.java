@@ -0,0 +1,249 @@
+package com.anish.e_commerce.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.event.ProductChangedEvent;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.repo.ProductRepo;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ProductCacheIndexTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOps;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    @Mock
+    private ProductRepo productRepo;
+
+    // Stands in for the Redis sets behind the mocked template
+    private final Map<String, Set<String>> sets = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager("products", "product");
+
+    private ProductCacheIndex index;
+    private Cache products;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get("products:idx:generation")).thenAnswer(i ->
+            String.valueOf(generation.get())
+        );
+        when(valueOps.increment("products:idx:generation")).thenAnswer(i ->
+            generation.incrementAndGet()
+        );
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+            .thenAnswer(i -> {
+                i.<SessionCallback<Object>>getArgument(0).execute(
+                    redisTemplate
+                );
+                return List.of();
+            });
+        when(setOps.add(anyString(), any(String[].class))).thenAnswer(i -> {
+            Object[] args = i.getArguments();
+            Set<String> set = sets.computeIfAbsent(
+                (String) args[0],
+                key -> new HashSet<>()
+            );
+            for (int a = 1; a < args.length; a++) {
+                set.add((String) args[a]);
+            }
+            return 1L;
+        });
+        when(setOps.members(anyString())).thenAnswer(i ->
+            sets.containsKey(i.<String>getArgument(0))
+                ? new HashSet<>(sets.get(i.<String>getArgument(0)))
+                : Set.of()
+        );
+        when(setOps.remove(anyString(), any(Object[].class))).thenAnswer(i -> {
+            Object[] args = i.getArguments();
+            Set<String> set = sets.getOrDefault((String) args[0], Set.of());
+            Arrays.asList(args).subList(1, args.length).forEach(set::remove);
+            return 1L;
+        });
+        when(redisTemplate.delete(anyString())).thenAnswer(i ->
+            sets.remove(i.<String>getArgument(0)) != null
+        );
+
+        index = new ProductCacheIndex(
+            redisTemplate,
+            cacheManager,
+            productRepo,
+            Duration.ofMinutes(60)
+        );
+        products = cacheManager.getCache("products");
+    }
+
+    @Test
+    void testProductLeavingAFilter_EvictsEveryPageOfIt() {
+        // Arrange: two cached pages of one toy search; the duck is on page 0
+        String page0 = toys(0);
+        String page1 = toys(1);
+        cacheFilterPage(page0, 1, 2);
+        cacheFilterPage(page1, 3, 4);
+
+        Product duck = product(1, ProductCategory.BOOKS_STATIONERY);
+        when(productRepo.findById(1)).thenReturn(Optional.of(duck));
+
+        // Act: recategorised, so every later toy shifts up a slot
+        index.onProductChanged(
+            new ProductChangedEvent(1, ProductChangedEvent.Type.UPDATED)
+        );
+
+        // Assert
+        assertNull(products.get(page0));
+        assertNull(products.get(page1));
+    }
+
+    @Test
+    void testProductDeleted_EvictsEveryPageOfItsFilters() {
+        // Arrange
+        String page0 = toys(0);
+        String page1 = toys(1);
+        cacheFilterPage(page0, 1, 2);
+        cacheFilterPage(page1, 3, 4);
+
+        // Act
+        index.onProductChanged(
+            new ProductChangedEvent(2, ProductChangedEvent.Type.DELETED)
+        );
+
+        // Assert
+        assertNull(products.get(page0));
+        assertNull(products.get(page1));
+    }
+
+    @Test
+    void testUnrelatedFilter_SurvivesTheChange() {
+        // Arrange: a book search the duck never was and still isn't in
+        String books = ProductCacheKeys.filter(
+            null,
+            ProductCategory.BOOKS_STATIONERY,
+            null,
+            null,
+            null,
+            "asc",
+            0,
+            2
+        );
+        cacheFilterPage(toys(0), 1, 2);
+        cacheFilterPage(books, 5);
+
+        Product duck = product(1, ProductCategory.TOYS_GAMES);
+        when(productRepo.findById(1)).thenReturn(Optional.of(duck));
+
+        // Act
+        index.onProductChanged(
+            new ProductChangedEvent(1, ProductChangedEvent.Type.UPDATED)
+        );
+
+        // Assert
+        assertNull(products.get(toys(0)));
+        assertNotNull(products.get(books));
+    }
+
+    @Test
+    void testGetOrLoad_WriteDuringTheLoadEvictsTheNewEntry() {
+        // Arrange: the duck is renamed while its page is being read
+        Product duck = product(1, ProductCategory.TOYS_GAMES);
+        when(productRepo.findById(1)).thenReturn(Optional.of(duck));
+        String page0 = toys(0);
+
+        // Act
+        List<Integer> loaded = index.getOrLoad(
+            page0,
+            () -> {
+                index.onProductChanged(
+                    new ProductChangedEvent(1, ProductChangedEvent.Type.UPDATED)
+                );
+                return List.of(1, 2);
+            },
+            ids -> ids
+        );
+
+        // Assert: served once, but not left in the cache
+        assertEquals(List.of(1, 2), loaded);
+        assertNull(products.get(page0));
+    }
+
+    @Test
+    void testGetOrLoad_HitSkipsTheLoader() {
+        // Arrange
+        cacheFilterPage(toys(0), 1, 2);
+
+        // Act
+        List<Integer> cached = index.getOrLoad(
+            toys(0),
+            () -> fail("should be served from the cache"),
+            ids -> ids
+        );
+
+        // Assert
+        assertEquals(List.of(1, 2), cached);
+    }
+
+    private void cacheFilterPage(String key, Integer... productIds) {
+        index.getOrLoad(key, () -> List.of(productIds), ids -> ids);
+    }
+
+    private static String toys(int page) {
+        return ProductCacheKeys.filter(
+            null,
+            ProductCategory.TOYS_GAMES,
+            null,
+            null,
+            null,
+            "asc",
+            page,
+            2
+        );
+    }
+
+    private static Product product(int id, ProductCategory category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Duck " + id);
+        product.setBrand("DuckCorp");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setCategory(category);
+        product.setAvailable(true);
+        product.setQuantity(5);
+        return product;
+    }
+}
@@ -0,0 +1,215 @@
+package com.anish.e_commerce.cart;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.dto.CartItemResponse;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.repo.CartItemRepo;
+import com.anish.e_commerce.repo.CartJdbcRepo;
+import com.anish.e_commerce.repo.ProductRepo;
+import com.anish.e_commerce.search.CatalogIndex;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisCartStoreTest {
+
+    private static final String KEY = "cart:testuser";
+    private static final String DIRTY_KEY = "carts:dirty";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    @Mock
+    private SetOperations<String, String> setOps;
+
+    @Mock
+    private CartItemRepo cartItemRepo;
+
+    @Mock
+    private CartJdbcRepo cartJdbcRepo;
+
+    @Mock
+    private ProductRepo productRepo;
+
+    @Mock
+    private CatalogIndex catalogIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RedisCartStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RedisCartStore(
+            redisTemplate,
+            cartItemRepo,
+            cartJdbcRepo,
+            productRepo,
+            catalogIndex,
+            transactionManager,
+            "redis"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testItems_MissSeedsTheHashFromPostgres() {
+        // Arrange: nothing in Redis, one row in Postgres
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(hashOps.entries(KEY)).thenReturn(Map.of());
+        when(cartItemRepo.findItemsByUsername("testuser")).thenReturn(
+            List.of(new CartItemResponse(7, "Duck", null, null, 2))
+        );
+        when(
+            redisTemplate.execute(
+                any(RedisScript.class),
+                eq(List.of(KEY)),
+                any(Object[].class)
+            )
+        ).thenReturn(List.of("_", "1", "7", "2"));
+        when(catalogIndex.cards(Set.of(7))).thenReturn(Map.of(7, card(7)));
+
+        // Act
+        List<CartItemResponse> items = store.items("testuser");
+
+        // Assert: the seed carries the TTL, the loaded marker and the row
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(
+            any(RedisScript.class),
+            eq(List.of(KEY)),
+            args.capture()
+        );
+        assertEquals(
+            List.of(String.valueOf(7 * 24 * 3600), "_", "1", "7", "2"),
+            List.of(args.getValue())
+        );
+        assertEquals(1, items.size());
+        assertEquals(2, items.get(0).getQuantity());
+        assertEquals("Duck 7", items.get(0).getName());
+    }
+
+    @Test
+    void testApply_UnknownProductIsRejectedBeforeAnyWrite() {
+        // Arrange: a loaded, empty cart and no such product anywhere
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(hashOps.entries(KEY)).thenReturn(Map.of("_", "1"));
+        when(catalogIndex.cards(Set.of(99))).thenReturn(Map.of());
+        when(productRepo.findCardsByIdIn(Set.of(99))).thenReturn(List.of());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            store.apply("testuser", Map.of(99, 1))
+        );
+        assertEquals("Invalid Product ID: 99", exception.getMessage());
+        verify(redisTemplate, never()).executePipelined(
+            any(RedisCallback.class)
+        );
+    }
+
+    @Test
+    void testFlushDirty_FailureRequeuesTheRestOfTheBatch() {
+        // Arrange: alice flushes, bob's write fails, carol is never reached
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(setOps.pop(DIRTY_KEY, 100)).thenReturn(
+            List.of("alice", "bob", "carol")
+        );
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(hashOps.entries("cart:alice")).thenReturn(Map.of("_", "1"));
+        when(cartJdbcRepo.lockCart("alice")).thenReturn(List.of(1L));
+        when(cartJdbcRepo.lockCart("bob")).thenThrow(
+            new RuntimeException("connection reset")
+        );
+
+        // Act
+        store.flushDirty();
+
+        // Assert: both bob and carol stay dirty, alice does not
+        verify(setOps).add(DIRTY_KEY, "bob", "carol");
+        verify(cartJdbcRepo, never()).lockCart("carol");
+        verify(setOps, times(1)).pop(DIRTY_KEY, 100);
+    }
+
+    @Test
+    void testClear_WaitsForTheCheckoutToCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        store.clear("testuser");
+
+        // Assert: nothing reaches Redis until the commit
+        verify(redisTemplate, never()).executePipelined(
+            any(RedisCallback.class)
+        );
+        List<TransactionSynchronization> synchronizations =
+            TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        verify(redisTemplate, times(1)).executePipelined(
+            any(RedisCallback.class)
+        );
+    }
+
+    @Test
+    void testClear_RolledBackCheckoutKeepsTheCart() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        store.clear("testuser");
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        // Assert
+        verify(redisTemplate, never()).executePipelined(
+            any(RedisCallback.class)
+        );
+    }
+
+    private static ProductCardResponse card(int id) {
+        return new ProductCardResponse(
+            id,
+            "Duck " + id,
+            "DuckCorp",
+            new BigDecimal("9.99"),
+            "url",
+            true,
+            ProductCategory.TOYS_GAMES,
+            null
+        );
+    }
+}
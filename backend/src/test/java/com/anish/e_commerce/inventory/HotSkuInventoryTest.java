@@ -0,0 +1,244 @@
+package com.anish.e_commerce.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.event.StockChangedEvent;
+import com.anish.e_commerce.repo.ProductRepo;
+import com.anish.e_commerce.repo.StockReservationRepo;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+public class HotSkuInventoryTest {
+
+    private static final List<String> SKU = List.of("inventory:sku:5");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOps;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    @Mock
+    private ProductRepo productRepo;
+
+    @Mock
+    private StockReservationRepo reservationRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HotSkuInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new HotSkuInventory(
+            redisTemplate,
+            productRepo,
+            reservationRepo,
+            eventPublisher,
+            transactionManager,
+            true
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReserve_RollbackPutsTheUnitsBackOnSale() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(
+            redisTemplate.execute(any(RedisScript.class), eq(SKU), any())
+        ).thenReturn(1L);
+
+        // Act
+        assertEquals(1, inventory.reserve(5, 2));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(redisTemplate).execute(
+            any(RedisScript.class),
+            eq(SKU),
+            eq("reserved"),
+            eq("stock"),
+            eq("2")
+        );
+    }
+
+    @Test
+    void testReserve_CommittedHoldIsLeftAlone() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(
+            redisTemplate.execute(any(RedisScript.class), eq(SKU), any())
+        ).thenReturn(1L);
+
+        // Act
+        inventory.reserve(5, 2);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert: no move back was attempted
+        verify(redisTemplate, never()).execute(
+            any(RedisScript.class),
+            eq(SKU),
+            any(),
+            any(),
+            any()
+        );
+    }
+
+    @Test
+    void testReserve_ShortStockRegistersNoCompensation() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(
+            redisTemplate.execute(any(RedisScript.class), eq(SKU), any())
+        ).thenReturn(0L);
+
+        // Act
+        assertEquals(0, inventory.reserve(5, 2));
+
+        // Assert
+        assertTrue(
+            TransactionSynchronizationManager.getSynchronizations().isEmpty()
+        );
+    }
+
+    @Test
+    void testCommit_RollbackMovesTheSaleBackToHeld() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(
+            redisTemplate.execute(
+                any(RedisScript.class),
+                eq(SKU),
+                any(),
+                any(),
+                any()
+            )
+        ).thenReturn(1L);
+
+        // Act
+        assertTrue(inventory.commit(5, 3));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(redisTemplate).execute(
+            any(RedisScript.class),
+            eq(SKU),
+            eq("sold"),
+            eq("reserved"),
+            eq("3")
+        );
+    }
+
+    @Test
+    void testRelease_RollbackHoldsTheUnitsAgain() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(
+            redisTemplate.execute(
+                any(RedisScript.class),
+                eq(SKU),
+                any(),
+                any(),
+                any()
+            )
+        ).thenReturn(1L);
+
+        // Act
+        assertTrue(inventory.release(5, 4));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(redisTemplate).execute(
+            any(RedisScript.class),
+            eq(SKU),
+            eq("stock"),
+            eq("reserved"),
+            eq("4")
+        );
+    }
+
+    @Test
+    void testReconcile_WritesSoldUnitsBackToPostgres() {
+        // Arrange: 3 units of product 5 sold since the last run, none of 6
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(setOps.members("inventory:hot")).thenReturn(Set.of("5", "6"));
+        when(redisTemplate.execute(any(RedisScript.class), eq(SKU))).thenReturn(
+            3L
+        );
+        when(
+            redisTemplate.execute(
+                any(RedisScript.class),
+                eq(List.of("inventory:sku:6"))
+            )
+        ).thenReturn(0L);
+
+        // Act
+        inventory.reconcile();
+
+        // Assert
+        verify(productRepo).deductStock(5, 3);
+        verify(productRepo, never()).deductStock(eq(6), anyInt());
+        verify(eventPublisher).publishEvent(new StockChangedEvent(Set.of(5)));
+    }
+
+    @Test
+    void testReconcile_FailedWritePutsTheSoldDeltaBack() {
+        // Arrange
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(setOps.members("inventory:hot")).thenReturn(Set.of("5"));
+        when(redisTemplate.execute(any(RedisScript.class), eq(SKU))).thenReturn(
+            3L
+        );
+        when(productRepo.deductStock(5, 3)).thenThrow(
+            new RuntimeException("connection reset")
+        );
+
+        // Act
+        inventory.reconcile();
+
+        // Assert: the next run retries the same 3 units
+        verify(hashOps).increment("inventory:sku:5", "sold", 3L);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(),
+            status
+        );
+    }
+}
@@ -0,0 +1,136 @@
+package com.anish.e_commerce.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.jwt.JwtUtil.TokenClaims;
+import com.anish.e_commerce.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtPrincipalResolverTest {
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenVersions tokenVersions;
+
+    @Test
+    void testAuthenticate_ClaimsMode_TakesAuthoritiesFromTheToken() {
+        // Arrange
+        when(tokenVersions.current("testuser")).thenReturn(OptionalLong.of(2));
+
+        // Act
+        UsernamePasswordAuthenticationToken auth = resolver(
+            "claims",
+            Duration.ZERO
+        ).authenticate(claims(2, "ADMIN", "USER"));
+
+        // Assert: no user lookup at all
+        assertNotNull(auth);
+        assertEquals(
+            List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_USER")
+            ),
+            List.copyOf(auth.getAuthorities())
+        );
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testAuthenticate_RevokedToken_IsRefused() {
+        // Arrange: the user logged out after this token was issued
+        when(tokenVersions.current("testuser")).thenReturn(OptionalLong.of(3));
+
+        // Act & Assert
+        assertNull(
+            resolver("claims", Duration.ZERO).authenticate(claims(2, "USER"))
+        );
+    }
+
+    @Test
+    void testAuthenticate_TokenWithoutVersion_CountsAsVersionZero() {
+        // Arrange: issued before tokens carried "ver"
+        Claims legacy = Jwts.claims().setSubject("testuser");
+        legacy.put("roles", List.of("USER"));
+        TokenClaims claims = TokenClaims.of(legacy);
+        JwtPrincipalResolver resolver = resolver("claims", Duration.ZERO);
+
+        // Act & Assert: fine until the first bump, refused after it
+        when(tokenVersions.current("testuser")).thenReturn(OptionalLong.of(0));
+        assertNotNull(resolver.authenticate(claims));
+
+        when(tokenVersions.current("testuser")).thenReturn(OptionalLong.of(1));
+        assertNull(resolver.authenticate(claims));
+    }
+
+    @Test
+    void testAuthenticate_VersionUnavailable_IsRefused() {
+        // Arrange
+        when(tokenVersions.current("testuser")).thenReturn(
+            OptionalLong.empty()
+        );
+
+        // Act & Assert
+        assertNull(
+            resolver("claims", Duration.ZERO).authenticate(claims(0, "USER"))
+        );
+    }
+
+    @Test
+    void testAuthenticate_DatabaseMode_CachesPrincipalPerVersion() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(
+            new User("testuser", "hashed", List.of(role("USER")))
+        );
+        JwtPrincipalResolver resolver = resolver(
+            "database",
+            Duration.ofMinutes(1)
+        );
+
+        // Act: two requests at version 0, then one after a bump
+        when(tokenVersions.current("testuser")).thenReturn(OptionalLong.of(0));
+        resolver.authenticate(claims(0, "USER"));
+        UsernamePasswordAuthenticationToken cached = resolver.authenticate(
+            claims(0, "USER")
+        );
+        when(tokenVersions.current("testuser")).thenReturn(OptionalLong.of(1));
+        resolver.authenticate(claims(1, "USER"));
+
+        // Assert: loaded once per version, without the password hash
+        verify(userDetailsService, times(2)).loadUserByUsername("testuser");
+        assertEquals("", ((UserDetails) cached.getPrincipal()).getPassword());
+    }
+
+    private JwtPrincipalResolver resolver(String mode, Duration cacheTtl) {
+        return new JwtPrincipalResolver(
+            userDetailsService,
+            tokenVersions,
+            mode,
+            cacheTtl
+        );
+    }
+
+    private static TokenClaims claims(long version, String... roles) {
+        return new TokenClaims("testuser", List.of(roles), version, null);
+    }
+
+    private static GrantedAuthority role(String name) {
+        return new SimpleGrantedAuthority("ROLE_" + name);
+    }
+}
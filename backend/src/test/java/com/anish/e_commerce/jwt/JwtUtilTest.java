@@ -0,0 +1,173 @@
+package com.anish.e_commerce.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.anish.e_commerce.jwt.JwtUtil.TokenClaims;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "aTestSecretThatIsLongEnoughForHs256!";
+
+    private final JwtUtil jwtUtil = jwtUtil(new JwtKeyringProperties());
+
+    @Test
+    void testParse_ExtractsEverythingFromOneVerification() {
+        // Arrange
+        String token = jwtUtil.generateToken("testuser", Set.of("ADMIN"), 3);
+
+        // Act
+        Optional<TokenClaims> claims = jwtUtil.parse(token);
+
+        // Assert
+        assertTrue(claims.isPresent());
+        assertEquals("testuser", claims.get().username());
+        assertEquals(List.of("ADMIN"), claims.get().roles());
+        assertEquals(3, claims.get().version());
+    }
+
+    @Test
+    void testParse_RepeatedTokenIsServedFromTheVerifiedCache() {
+        // Arrange
+        String token = jwtUtil.generateToken("testuser", Set.of("USER"), 0);
+
+        // Act
+        TokenClaims first = jwtUtil.parse(token).orElseThrow();
+        TokenClaims second = jwtUtil.parse(token).orElseThrow();
+
+        // Assert: the same verified instance, not a second parse
+        assertSame(first, second);
+    }
+
+    @Test
+    void testParse_RejectsTamperedToken() {
+        // Arrange: change the first character of the signature
+        String token = jwtUtil.generateToken("testuser", Set.of("USER"), 0);
+        int at = token.lastIndexOf('.') + 1;
+        char flipped = token.charAt(at) == 'A' ? 'B' : 'A';
+        String tampered =
+            token.substring(0, at) + flipped + token.substring(at + 1);
+
+        // Act & Assert
+        assertTrue(jwtUtil.parse(tampered).isEmpty());
+    }
+
+    @Test
+    void testParse_RejectsExpiredToken() {
+        // Arrange: tokens from this instance expire before they are issued
+        JwtUtil expiring = new JwtUtil(
+            new JwtKeyring(new JwtKeyringProperties(), SECRET),
+            -1_000,
+            100
+        );
+        String token = expiring.generateToken("testuser", Set.of("USER"), 0);
+
+        // Act & Assert
+        assertTrue(expiring.parse(token).isEmpty());
+    }
+
+    @Test
+    void testParse_OldKeyVerifiesDuringItsGraceWindowOnly() {
+        // Arrange: tokens signed before the rotation to "k2"
+        String token = jwtUtil(keyring("k1", hs256("k1", null))).generateToken(
+            "testuser",
+            Set.of("USER"),
+            0
+        );
+        Instant later = Instant.now().plusSeconds(600);
+        Instant earlier = Instant.now().minusSeconds(1);
+
+        // Act & Assert
+        JwtUtil inGrace = jwtUtil(
+            keyring("k2", hs256("k1", later), hs256("k2", null))
+        );
+        assertTrue(inGrace.parse(token).isPresent());
+
+        JwtUtil afterGrace = jwtUtil(
+            keyring("k2", hs256("k1", earlier), hs256("k2", null))
+        );
+        assertTrue(afterGrace.parse(token).isEmpty());
+    }
+
+    @Test
+    void testParse_TokensWithoutKidUseTheLegacySecret() {
+        // Arrange: issued before the keyring was configured
+        String token = jwtUtil.generateToken("testuser", Set.of("USER"), 0);
+        JwtKeyringProperties rotated = keyring("k1", hs256("k1", null));
+
+        // Act & Assert
+        assertTrue(jwtUtil(rotated).parse(token).isPresent());
+
+        rotated.setLegacyUntil(Instant.now().minusSeconds(1));
+        assertTrue(jwtUtil(rotated).parse(token).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKeyring_Es256TokensVerifyAndThePublicKeyIsPublished()
+        throws Exception {
+        // Arrange
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+
+        JwtKeyringProperties.Key key = new JwtKeyringProperties.Key();
+        key.setKid("edge-1");
+        key.setAlgorithm("ES256");
+        key.setPrivateKey(encode(pair.getPrivate().getEncoded()));
+        key.setPublicKey(encode(pair.getPublic().getEncoded()));
+        JwtKeyringProperties properties = keyring("edge-1", key);
+        JwtKeyring keyring = new JwtKeyring(properties, SECRET);
+        JwtUtil es256 = new JwtUtil(keyring, 60_000, 100);
+
+        // Act
+        String token = es256.generateToken("testuser", Set.of("USER"), 0);
+        List<Map<String, Object>> jwks = (List<
+            Map<String, Object>
+        >) keyring.jwks().get("keys");
+
+        // Assert
+        assertTrue(es256.parse(token).isPresent());
+        assertEquals(1, jwks.size());
+        assertEquals("edge-1", jwks.get(0).get("kid"));
+        assertEquals("ES256", jwks.get(0).get("alg"));
+    }
+
+    private static JwtUtil jwtUtil(JwtKeyringProperties properties) {
+        return new JwtUtil(new JwtKeyring(properties, SECRET), 60_000, 100);
+    }
+
+    private static JwtKeyringProperties keyring(
+        String current,
+        JwtKeyringProperties.Key... keys
+    ) {
+        JwtKeyringProperties properties = new JwtKeyringProperties();
+        properties.setCurrent(current);
+        properties.setKeys(List.of(keys));
+        return properties;
+    }
+
+    private static JwtKeyringProperties.Key hs256(
+        String kid,
+        Instant verifyUntil
+    ) {
+        JwtKeyringProperties.Key key = new JwtKeyringProperties.Key();
+        key.setKid(kid);
+        key.setSecret("secret-for-" + kid + "-that-is-long-enough!!");
+        key.setVerifyUntil(verifyUntil);
+        return key;
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
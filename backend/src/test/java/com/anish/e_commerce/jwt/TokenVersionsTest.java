@@ -0,0 +1,129 @@
+package com.anish.e_commerce.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionsTest {
+
+    private static final String KEY = "auth:ver:testuser";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private TokenVersions tokenVersions;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        tokenVersions = tokenVersions(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testCurrent_IsServedFromMemoryBetweenReads() {
+        // Arrange
+        when(valueOps.get(KEY)).thenReturn("2");
+
+        // Act
+        tokenVersions.current("testuser");
+        OptionalLong version = tokenVersions.current("testuser");
+
+        // Assert
+        assertEquals(OptionalLong.of(2), version);
+        verify(valueOps, times(1)).get(KEY);
+    }
+
+    @Test
+    void testBump_InvalidatesTheLocalCopy() {
+        // Arrange
+        when(valueOps.get(KEY)).thenReturn(null, "1");
+        when(valueOps.increment(KEY)).thenReturn(1L);
+        assertEquals(OptionalLong.of(0), tokenVersions.current("testuser"));
+
+        // Act
+        long bumped = tokenVersions.bump("testuser");
+
+        // Assert: the next check sees the new version, not the cached 0
+        assertEquals(1, bumped);
+        assertEquals(OptionalLong.of(1), tokenVersions.current("testuser"));
+        verify(redisTemplate).convertAndSend(
+            TokenVersions.REVOKED_CHANNEL,
+            "testuser"
+        );
+    }
+
+    @Test
+    void testRevokedMessage_InvalidatesTheLocalCopy() {
+        // Arrange: another node bumped the version
+        when(valueOps.get(KEY)).thenReturn("0", "1");
+        tokenVersions.current("testuser");
+
+        // Act
+        tokenVersions.onMessage(
+            new DefaultMessage(
+                TokenVersions.REVOKED_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "testuser".getBytes(StandardCharsets.UTF_8)
+            ),
+            null
+        );
+
+        // Assert
+        assertEquals(OptionalLong.of(1), tokenVersions.current("testuser"));
+    }
+
+    @Test
+    void testCurrent_RedisDown_FallsBackToTheLastVersionRead() {
+        // Arrange: nothing is held in the short cache between checks
+        tokenVersions = tokenVersions(Duration.ZERO);
+        when(valueOps.get(KEY))
+            .thenReturn("3")
+            .thenThrow(new RedisConnectionFailureException("down"));
+        tokenVersions.current("testuser");
+
+        // Act
+        OptionalLong version = tokenVersions.current("testuser");
+
+        // Assert
+        assertEquals(OptionalLong.of(3), version);
+    }
+
+    @Test
+    void testCurrent_RedisDownAndNothingKnown_IsEmpty() {
+        // Arrange
+        when(valueOps.get(KEY)).thenThrow(
+            new RedisConnectionFailureException("down")
+        );
+
+        // Act & Assert: refused rather than a 500
+        assertTrue(tokenVersions.current("testuser").isEmpty());
+    }
+
+    private TokenVersions tokenVersions(Duration cacheTtl) {
+        return new TokenVersions(
+            redisTemplate,
+            listenerContainer,
+            cacheTtl,
+            Duration.ofHours(1)
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package com.anish.e_commerce.notification;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.anish.e_commerce.dto.NotificationResponse;
+import com.anish.e_commerce.dto.UserNotification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationHubTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<RecordingEmitter> handedOut = new ArrayList<>();
+
+    private NotificationHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new NotificationHub(
+            redisTemplate,
+            objectMapper,
+            listenerContainer,
+            Duration.ofMinutes(30)
+        ) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                handedOut.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @Test
+    void testSubscribe_SixthStreamClosesTheOldest() {
+        // Act: one tab more than a user may keep open
+        for (int i = 0; i < 6; i++) {
+            hub.subscribe(7L);
+        }
+
+        // Assert
+        assertTrue(handedOut.get(0).completed);
+        for (RecordingEmitter emitter : handedOut.subList(1, 6)) {
+            assertFalse(emitter.completed);
+        }
+    }
+
+    @Test
+    void testOnMessage_PushesOnlyToTheAddressedUser() throws Exception {
+        // Arrange: two tabs for user 7, one for user 8
+        RecordingEmitter first = (RecordingEmitter) hub.subscribe(7L);
+        RecordingEmitter second = (RecordingEmitter) hub.subscribe(7L);
+        RecordingEmitter other = (RecordingEmitter) hub.subscribe(8L);
+
+        // Act: a push for user 7, then one for user 8
+        hub.onMessage(push(7L, 42L), null);
+        await(() -> first.attempts.get() == 1 && second.attempts.get() == 1);
+        hub.onMessage(push(8L, 43L), null);
+        await(() -> other.attempts.get() >= 1);
+
+        // Assert: each stream saw only its own user's push
+        assertEquals(1, first.attempts.get());
+        assertEquals(1, second.attempts.get());
+        assertEquals(1, other.attempts.get());
+    }
+
+    @Test
+    void testOnMessage_FailedSendDropsTheStream() throws Exception {
+        // Arrange: the client went away without the server noticing
+        RecordingEmitter dead = (RecordingEmitter) hub.subscribe(7L);
+        dead.broken = true;
+
+        // Act
+        hub.onMessage(push(7L, 42L), null);
+        await(() -> dead.failedWithError);
+        hub.onMessage(push(7L, 43L), null);
+        RecordingEmitter fresh = (RecordingEmitter) hub.subscribe(7L);
+        hub.onMessage(push(7L, 44L), null);
+
+        // Assert: only the first push was tried on the dead stream
+        await(() -> fresh.attempts.get() == 1);
+        assertEquals(1, dead.attempts.get());
+    }
+
+    @Test
+    void testOnMessage_UnreadablePayloadIsDropped() {
+        // Arrange
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe(7L);
+
+        // Act
+        hub.onMessage(message("not json"), null);
+
+        // Assert
+        assertEquals(0, emitter.attempts.get());
+    }
+
+    private DefaultMessage push(long userId, long notificationId)
+        throws Exception {
+        return message(
+            objectMapper.writeValueAsString(
+                List.of(
+                    new UserNotification(
+                        userId,
+                        new NotificationResponse(
+                            notificationId,
+                            "Back in stock",
+                            false,
+                            new Date()
+                        )
+                    )
+                )
+            )
+        );
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+            NotificationHub.PUSH_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    // Sends happen on the hub's own threads
+    private static void await(BooleanSupplier condition)
+        throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    // Counts sends instead of writing to a response
+    private static class RecordingEmitter extends SseEmitter {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        volatile boolean broken;
+        volatile boolean completed;
+        volatile boolean failedWithError;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts.incrementAndGet();
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failedWithError = true;
+        }
+    }
+}
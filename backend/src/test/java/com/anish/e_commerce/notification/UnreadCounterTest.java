@@ -0,0 +1,177 @@
+package com.anish.e_commerce.notification;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.repo.NotificationRepo;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UnreadCounterTest {
+
+    private static final String KEY = "notifications:unread:7";
+    private static final String GEN_KEY = "notifications:unread:gen:7";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    @Mock
+    private NotificationRepo notificationRepo;
+
+    // Stands in for Redis; the scripts are told apart by their text
+    private final Map<String, Long> values = new HashMap<>();
+
+    private UnreadCounter counter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get(anyString())).thenAnswer(i -> {
+            Long value = values.get(i.<String>getArgument(0));
+            return value != null ? String.valueOf(value) : null;
+        });
+        when(
+            redisTemplate.execute(
+                any(RedisScript.class),
+                anyList(),
+                any(Object[].class)
+            )
+        ).thenAnswer(i -> {
+            String script = i.<RedisScript<?>>getArgument(0).getScriptAsString();
+            List<String> keys = i.getArgument(1);
+            long arg = Long.parseLong(i.getArgument(2));
+            if (script.contains("DEL")) {
+                values.remove(keys.get(0));
+                values.merge(keys.get(1), 1L, Long::sum);
+                return 0L;
+            }
+            return script.contains("NX")
+                ? seed(keys, arg, i.getArgument(3))
+                : addIfPresent(keys, arg);
+        });
+
+        counter = new UnreadCounter(redisTemplate, notificationRepo);
+    }
+
+    @Test
+    void testGet_MissRecountsAndStoresTheCount() {
+        // Arrange
+        when(notificationRepo.countByUserIdAndIsReadFalse(7L)).thenReturn(3L);
+
+        // Act
+        long first = counter.get(7L);
+        long second = counter.get(7L);
+
+        // Assert
+        assertEquals(3, first);
+        assertEquals(3, second);
+        verify(notificationRepo, times(1)).countByUserIdAndIsReadFalse(7L);
+    }
+
+    @Test
+    void testGet_NotificationDuringTheRecountIsNotLost() {
+        // Arrange: a notification is written and counted while the recount
+        // that missed it is still running
+        when(notificationRepo.countByUserIdAndIsReadFalse(7L))
+            .thenAnswer(i -> {
+                counter.add(List.of(7L), 1);
+                return 3L;
+            })
+            .thenReturn(4L);
+
+        // Act
+        long raced = counter.get(7L);
+        long next = counter.get(7L);
+
+        // Assert: the stale count was served once but never stored
+        assertEquals(3, raced);
+        assertEquals(4, next);
+        assertEquals(4L, values.get(KEY));
+    }
+
+    @Test
+    void testInvalidate_RecountThatStartedBeforeItIsNotStored() {
+        // Arrange: everything is marked read while a recount is running
+        when(notificationRepo.countByUserIdAndIsReadFalse(7L))
+            .thenAnswer(i -> {
+                counter.invalidate(7L);
+                return 5L;
+            })
+            .thenReturn(0L);
+
+        // Act
+        counter.get(7L);
+        long next = counter.get(7L);
+
+        // Assert
+        assertEquals(0, next);
+        assertEquals(0L, values.get(KEY));
+    }
+
+    @Test
+    void testAdd_MovesAnExistingCounterWithoutGoingNegative() {
+        // Arrange
+        values.put(KEY, 1L);
+
+        // Act
+        counter.add(List.of(7L), -1);
+        counter.add(List.of(7L), -1);
+
+        // Assert
+        assertEquals(0L, values.get(KEY));
+        assertNull(values.get(GEN_KEY));
+    }
+
+    @Test
+    void testGet_RedisDownFallsBackToTheDatabase() {
+        // Arrange
+        when(valueOps.get(KEY)).thenThrow(
+            new RedisConnectionFailureException("down")
+        );
+        when(notificationRepo.countByUserIdAndIsReadFalse(7L)).thenReturn(2L);
+
+        // Act
+        long count = counter.get(7L);
+
+        // Assert
+        assertEquals(2, count);
+    }
+
+    private long seed(List<String> keys, long count, String generation) {
+        long current = values.getOrDefault(keys.get(1), 0L);
+        if (current != Long.parseLong(generation)) {
+            return 0L;
+        }
+        return values.putIfAbsent(keys.get(0), count) == null ? 1L : 0L;
+    }
+
+    private long addIfPresent(List<String> keys, long delta) {
+        for (int k = 0; k < keys.size(); k += 2) {
+            if (values.containsKey(keys.get(k))) {
+                values.merge(keys.get(k), delta, (a, b) -> Math.max(0, a + b));
+            } else {
+                values.merge(keys.get(k + 1), 1L, Long::sum);
+            }
+        }
+        return 0L;
+    }
+}
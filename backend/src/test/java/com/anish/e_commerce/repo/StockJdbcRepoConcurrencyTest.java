@@ -0,0 +1,160 @@
+package com.anish.e_commerce.repo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+// Flash sale against a real Postgres: many buyers race for a few units and
+// only the conditional UPDATE stands between them and an oversell. Runs
+// when DB_URL (plus DB_USER / DB_PASS) points at a database it may create a
+// throwaway schema in.
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+public class StockJdbcRepoConcurrencyTest {
+
+    private static final int STOCK = 10;
+    private static final int BUYERS = 40;
+
+    private final String schema =
+        "stock_stress_" + UUID.randomUUID().toString().replace("-", "");
+
+    private JdbcTemplate admin;
+    private JdbcTemplate jdbcTemplate;
+    private StockJdbcRepo stockJdbcRepo;
+
+    @BeforeEach
+    void setUp() {
+        admin = new JdbcTemplate(dataSource(null));
+        admin.execute("CREATE SCHEMA " + schema);
+
+        jdbcTemplate = new JdbcTemplate(dataSource(schema));
+        jdbcTemplate.execute(
+            "CREATE TABLE product (id int PRIMARY KEY, " +
+                "quantity int NOT NULL, available boolean NOT NULL, " +
+                "sold_out boolean NOT NULL)"
+        );
+        jdbcTemplate.update(
+            "INSERT INTO product VALUES " +
+                "(1, ?, true, false), (2, ?, true, false)",
+            STOCK,
+            STOCK
+        );
+        stockJdbcRepo = new StockJdbcRepo(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        admin.execute("DROP SCHEMA " + schema + " CASCADE");
+    }
+
+    @Test
+    void testTakeStock_FlashSaleNeverOversells() throws Exception {
+        // Arrange: every buyer wants one unit, all released at once
+        CyclicBarrier start = new CyclicBarrier(BUYERS);
+        ExecutorService buyers = Executors.newFixedThreadPool(BUYERS);
+
+        // Act
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            results.add(
+                buyers.submit(() -> {
+                    start.await();
+                    return stockJdbcRepo.takeStock(
+                        new TreeMap<>(Map.of(1, 1))
+                    );
+                })
+            );
+        }
+        int sold = 0;
+        for (Future<List<Integer>> result : results) {
+            if (result.get(30, TimeUnit.SECONDS).isEmpty()) {
+                sold++;
+            }
+        }
+        buyers.shutdown();
+
+        // Assert: exactly the stock was sold and the product is sold out
+        assertEquals(STOCK, sold);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT quantity, available, sold_out FROM product WHERE id = 1"
+        );
+        assertEquals(0, row.get("quantity"));
+        assertEquals(false, row.get("available"));
+        assertEquals(true, row.get("sold_out"));
+    }
+
+    @Test
+    void testTakeStock_MultiLineOrdersNeverOversellEitherProduct()
+        throws Exception {
+        // Arrange: baskets of 1-3 units of both products; ascending ids mean
+        // the racing batches lock rows in one order and cannot deadlock
+        CyclicBarrier start = new CyclicBarrier(BUYERS);
+        ExecutorService buyers = Executors.newFixedThreadPool(BUYERS);
+
+        // Act
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            int units = i % 3 + 1;
+            results.add(
+                buyers.submit(() -> {
+                    start.await();
+                    List<Integer> missing = stockJdbcRepo.takeStock(
+                        new TreeMap<>(Map.of(1, units, 2, units))
+                    );
+                    // A line that could not be taken sold nothing
+                    return new int[] {
+                        missing.contains(1) ? 0 : units,
+                        missing.contains(2) ? 0 : units,
+                    };
+                })
+            );
+        }
+        int[] sold = new int[2];
+        for (Future<int[]> result : results) {
+            int[] lines = result.get(30, TimeUnit.SECONDS);
+            sold[0] += lines[0];
+            sold[1] += lines[1];
+        }
+        buyers.shutdown();
+
+        // Assert: what the buyers were told adds up to what left the shelf
+        for (int productId = 1; productId <= 2; productId++) {
+            Integer left = jdbcTemplate.queryForObject(
+                "SELECT quantity FROM product WHERE id = ?",
+                Integer.class,
+                productId
+            );
+            assertTrue(left >= 0);
+            assertEquals(STOCK, sold[productId - 1] + left);
+        }
+    }
+
+    private static DriverManagerDataSource dataSource(String schema) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            System.getenv("DB_URL"),
+            System.getenv("DB_USER"),
+            System.getenv("DB_PASS")
+        );
+        if (schema != null) {
+            Properties properties = new Properties();
+            properties.setProperty("currentSchema", schema);
+            dataSource.setConnectionProperties(properties);
+        }
+        return dataSource;
+    }
+}
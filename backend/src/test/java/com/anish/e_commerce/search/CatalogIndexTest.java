@@ -0,0 +1,274 @@
+package com.anish.e_commerce.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.dto.CatalogSearchResponse;
+import com.anish.e_commerce.dto.CatalogSearchResponse.PriceFacet;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.dto.ProductSuggestion;
+import com.anish.e_commerce.event.ProductChangedEvent;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.repo.ProductRepo;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogIndexTest {
+
+    @Mock
+    private ProductRepo productRepo;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private CatalogIndex catalogIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> catalog = List.of(
+            product(1, "Duck Keyboard", ProductCategory.ELECTRONICS, "149.99"),
+            product(2, "Duck Plushie", ProductCategory.TOYS_GAMES, "25.00"),
+            product(3, "Rubber Duck", ProductCategory.TOYS_GAMES, "24.99"),
+            product(4, "Wireless Mouse", ProductCategory.ELECTRONICS, "50.00"),
+            product(5, "Duck Backpack", ProductCategory.FASHION, "500.00")
+        );
+        catalog.get(2).setAvailable(false);
+        catalog.get(3).setBrand("Clicky");
+        when(productRepo.findAllBy(any(Pageable.class))).thenAnswer(i ->
+            new SliceImpl<>(catalog, i.getArgument(0), false)
+        );
+
+        catalogIndex = new CatalogIndex(
+            productRepo,
+            redisTemplate,
+            listenerContainer
+        );
+        catalogIndex.rebuild();
+    }
+
+    @Test
+    void testSearch_FacetsIgnoreOnlyTheirOwnFilter() {
+        // Act: available ducks in toys costing at least 100
+        CatalogSearchResponse response = catalogIndex.search(
+            "duck",
+            ProductCategory.TOYS_GAMES,
+            new BigDecimal("100"),
+            null,
+            true,
+            "asc",
+            0,
+            10
+        );
+
+        // Assert: no toy duck is that expensive
+        assertEquals(0, response.getTotalElements());
+        assertTrue(response.getContent().isEmpty());
+
+        // Categories still apply keyword, availability and price
+        assertEquals(1, response.getCategoryFacets().get("ELECTRONICS"));
+        assertEquals(1, response.getCategoryFacets().get("FASHION"));
+        assertEquals(0, response.getCategoryFacets().get("TOYS_GAMES"));
+
+        // Price buckets still apply keyword, availability and category
+        assertEquals(
+            List.of(0L, 1L, 0L, 0L, 0L, 0L),
+            counts(response.getPriceFacets())
+        );
+    }
+
+    @Test
+    void testSearch_CombinedFiltersNarrowTheResults() {
+        // Act
+        CatalogSearchResponse response = catalogIndex.search(
+            "duck",
+            null,
+            new BigDecimal("25"),
+            new BigDecimal("200"),
+            true,
+            "desc",
+            0,
+            10
+        );
+
+        // Assert: highest price first; the unavailable rubber duck is out
+        assertEquals(List.of(1, 2), ids(response.getContent()));
+        assertEquals(2, response.getTotalElements());
+    }
+
+    @Test
+    void testSearch_PriceBucketsIncludeTheirLowerBoundOnly() {
+        // Act
+        List<PriceFacet> facets = catalogIndex
+            .search(null, null, null, null, null, "asc", 0, 10)
+            .getPriceFacets();
+
+        // Assert: 24.99 | 25.00 | 50.00 | 149.99 | - | 500.00 and above
+        assertEquals(List.of(1L, 1L, 1L, 1L, 0L, 1L), counts(facets));
+        assertEquals(new BigDecimal("25"), facets.get(1).getMin());
+        assertEquals(new BigDecimal("50"), facets.get(1).getMax());
+        assertNull(facets.get(5).getMax());
+    }
+
+    @Test
+    void testSuggest_ColdIndexIsBuiltBeforeTheCacheLoads() {
+        // Arrange: an index nobody has warmed up yet
+        CatalogIndex cold = new CatalogIndex(
+            productRepo,
+            redisTemplate,
+            listenerContainer
+        );
+
+        // Act
+        List<ProductSuggestion> suggestions = assertTimeoutPreemptively(
+            Duration.ofSeconds(5),
+            () -> cold.suggest("rubber", 5)
+        );
+
+        // Assert: the rebuild ran once, and its result is what got cached
+        assertEquals(3, suggestions.get(0).getId());
+        cold.suggest("rubber", 5);
+        verify(productRepo, times(2)).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    void testSuggest_ToleratesTyposAndRanksBestCoverageFirst() {
+        // Act: "plushy" is not a word in the catalog
+        List<ProductSuggestion> suggestions = catalogIndex.suggest(
+            "duck plushy",
+            5
+        );
+
+        // Assert: the plushie shares the most trigrams; ties go to the
+        // shorter name, then the lower id; the mouse shares too few
+        assertEquals(
+            List.of(2, 3, 1, 5),
+            suggestions.stream().map(ProductSuggestion::getId).toList()
+        );
+    }
+
+    @Test
+    void testOnProductChanged_UpdatesPostingsAndFacets() {
+        // Arrange: the mouse is renamed and recategorised
+        Product renamed = product(
+            4,
+            "Duck Mouse",
+            ProductCategory.TOYS_GAMES,
+            "50.00"
+        );
+        when(productRepo.findAllById(Set.of(4))).thenReturn(List.of(renamed));
+
+        // Act
+        catalogIndex.onProductChanged(
+            new ProductChangedEvent(4, ProductChangedEvent.Type.UPDATED)
+        );
+
+        // Assert
+        CatalogSearchResponse response = catalogIndex.search(
+            "mouse",
+            null,
+            null,
+            null,
+            null,
+            "asc",
+            0,
+            10
+        );
+        assertEquals(List.of(4), ids(response.getContent()));
+        assertEquals(0, response.getCategoryFacets().get("ELECTRONICS"));
+        assertEquals(1, response.getCategoryFacets().get("TOYS_GAMES"));
+        assertTrue(
+            catalogIndex
+                .search("wireless", null, null, null, null, "asc", 0, 10)
+                .getContent()
+                .isEmpty()
+        );
+        verify(redisTemplate).convertAndSend(
+            eq(CatalogIndex.CHANGE_CHANNEL),
+            endsWith("|4")
+        );
+    }
+
+    @Test
+    void testOnProductChanged_DeletedProductLeavesTheIndex() {
+        // Arrange
+        when(productRepo.findAllById(Set.of(1))).thenReturn(List.of());
+
+        // Act
+        catalogIndex.onProductChanged(
+            new ProductChangedEvent(1, ProductChangedEvent.Type.DELETED)
+        );
+
+        // Assert
+        assertEquals(
+            List.of(3, 2, 5),
+            ids(
+                catalogIndex
+                    .search("duck", null, null, null, null, "asc", 0, 10)
+                    .getContent()
+            )
+        );
+        assertTrue(catalogIndex.cards(List.of(1)).isEmpty());
+        assertTrue(
+            catalogIndex
+                .suggest("keyboard", 5)
+                .stream()
+                .noneMatch(s -> s.getId() == 1)
+        );
+    }
+
+    @Test
+    void testCards_ReturnsOnlyIndexedProducts() {
+        // Act
+        Map<Integer, ProductCardResponse> cards = catalogIndex.cards(
+            List.of(2, 4, 99)
+        );
+
+        // Assert: callers look up 99 themselves
+        assertEquals(Set.of(2, 4), cards.keySet());
+        assertEquals("Duck Plushie", cards.get(2).getName());
+        assertEquals(new BigDecimal("50.00"), cards.get(4).getPrice());
+    }
+
+    private static List<Integer> ids(List<ProductCardResponse> cards) {
+        return cards.stream().map(ProductCardResponse::getId).toList();
+    }
+
+    private static List<Long> counts(List<PriceFacet> facets) {
+        return facets.stream().map(PriceFacet::getCount).toList();
+    }
+
+    private static Product product(
+        int id,
+        String name,
+        ProductCategory category,
+        String price
+    ) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setBrand("DuckCorp");
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setAvailable(true);
+        product.setQuantity(5);
+        return product;
+    }
+}
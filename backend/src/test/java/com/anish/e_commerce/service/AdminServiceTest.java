@@ -4,13 +4,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.anish.e_commerce.dto.AdminStatsResponse;
-import com.anish.e_commerce.model.Order;
-import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.dto.DailyOrderTotal;
 import com.anish.e_commerce.repo.OrderRepo;
 import com.anish.e_commerce.repo.ProductRepo;
 import com.anish.e_commerce.repo.UserRepo;
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -40,37 +39,21 @@ public class AdminServiceTest {
         when(userRepo.count()).thenReturn(5L);
         when(productRepo.count()).thenReturn(10L);
 
-        // Arrange: Mock Out-of-Stock Products
-        Product availableProduct = new Product();
-        availableProduct.setAvailable(true);
-        availableProduct.setQuantity(5);
-
-        Product outOfStockProduct = new Product();
-        outOfStockProduct.setAvailable(false);
-        outOfStockProduct.setQuantity(0);
-
-        when(productRepo.findAll()).thenReturn(
-            List.of(availableProduct, outOfStockProduct)
+        // Arrange: Aggregates computed by Postgres
+        when(productRepo.countOutOfStock()).thenReturn(1L);
+        when(orderRepo.count()).thenReturn(3L);
+        when(orderRepo.sumTotalAmount()).thenReturn(new BigDecimal("300.00"));
+
+        // Arrange: Two orders today, one yesterday
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        when(orderRepo.findDailyTotalsSince(any())).thenReturn(
+            List.of(
+                new DailyOrderTotal(yesterday, 1, new BigDecimal("100.00")),
+                new DailyOrderTotal(today, 2, new BigDecimal("200.00"))
+            )
         );
 
-        // Arrange: Mock Orders (Two orders today, one yesterday)
-        LocalDateTime today = LocalDateTime.now();
-        LocalDateTime yesterday = today.minusDays(1);
-
-        Order order1 = new Order();
-        order1.setTotalAmount(new BigDecimal("50.00"));
-        order1.setCreatedAt(today);
-
-        Order order2 = new Order();
-        order2.setTotalAmount(new BigDecimal("150.00"));
-        order2.setCreatedAt(today);
-
-        Order order3 = new Order();
-        order3.setTotalAmount(new BigDecimal("100.00"));
-        order3.setCreatedAt(yesterday);
-
-        when(orderRepo.findAll()).thenReturn(List.of(order1, order2, order3));
-
         // Act
         AdminStatsResponse stats = adminService.getStats();
 
@@ -112,4 +95,21 @@ public class AdminServiceTest {
         assertEquals(1, yesterdayStat.getCount());
         assertEquals(new BigDecimal("100.00"), yesterdayStat.getRevenue());
     }
+
+    @Test
+    void testGetStats_NeverLoadsOrdersOrProducts() {
+        // Arrange
+        when(orderRepo.sumTotalAmount()).thenReturn(BigDecimal.ZERO);
+        when(orderRepo.findDailyTotalsSince(any())).thenReturn(List.of());
+
+        // Act
+        adminService.getStats();
+
+        // Assert: only aggregate queries, and the chart is bounded
+        verify(orderRepo, never()).findAll();
+        verify(productRepo, never()).findAll();
+        verify(orderRepo).findDailyTotalsSince(
+            LocalDate.now().minusDays(29).atStartOfDay()
+        );
+    }
 }
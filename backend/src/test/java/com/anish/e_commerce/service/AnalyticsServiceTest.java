@@ -0,0 +1,221 @@
+package com.anish.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.dto.AnalyticsResponse;
+import com.anish.e_commerce.event.OrderCompletedEvent;
+import com.anish.e_commerce.model.Product.ProductCategory;
+import com.anish.e_commerce.model.SalesRollup;
+import com.anish.e_commerce.repo.SalesRollupJdbcRepo;
+import com.anish.e_commerce.repo.SalesRollupJdbcRepo.Delta;
+import com.anish.e_commerce.repo.SalesRollupRepo;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsServiceTest {
+
+    @Mock
+    private SalesRollupRepo rollupRepo;
+
+    @Mock
+    private SalesRollupJdbcRepo rollupJdbcRepo;
+
+    @InjectMocks
+    private AnalyticsService analyticsService;
+
+    @Test
+    void testGetSeries_FillsGapsInOrder() {
+        // Arrange: sales on the 1st and 3rd only
+        when(
+            rollupRepo.findRange(eq(SalesRollup.Grain.DAY), any(), any())
+        ).thenReturn(
+            List.of(
+                row("2026-03-03T00:00", SalesRollup.ALL, 1, 2, "40.00"),
+                row("2026-03-01T00:00", SalesRollup.ALL, 2, 3, "100.00"),
+                row("2026-03-01T00:00", "BOOKS_STATIONERY", 2, 3, "100.00")
+            )
+        );
+
+        // Act
+        AnalyticsResponse response = analyticsService.getSeries(
+            LocalDate.of(2026, 3, 1),
+            LocalDate.of(2026, 3, 3),
+            "day"
+        );
+
+        // Assert
+        List<AnalyticsResponse.Point> series = response.getSeries();
+        assertEquals(3, series.size());
+        assertEquals(
+            LocalDateTime.parse("2026-03-01T00:00"),
+            series.get(0).getBucket()
+        );
+        assertEquals(new BigDecimal("50.00"), series.get(0).getAverageBasket());
+        assertEquals(
+            3L,
+            series
+                .get(0)
+                .getUnitsByCategory()
+                .get(ProductCategory.BOOKS_STATIONERY)
+        );
+        assertEquals(0, series.get(1).getOrders());
+        assertEquals(1, series.get(2).getOrders());
+    }
+
+    @Test
+    void testGetSeries_FoldsDaysIntoMonths() {
+        // Arrange
+        when(
+            rollupRepo.findRange(eq(SalesRollup.Grain.DAY), any(), any())
+        ).thenReturn(
+            List.of(
+                row("2026-01-05T00:00", SalesRollup.ALL, 1, 1, "10.00"),
+                row("2026-01-20T00:00", SalesRollup.ALL, 1, 1, "30.00")
+            )
+        );
+
+        // Act
+        AnalyticsResponse response = analyticsService.getSeries(
+            LocalDate.of(2026, 1, 1),
+            LocalDate.of(2026, 2, 28),
+            "MONTH"
+        );
+
+        // Assert
+        assertEquals(2, response.getSeries().size());
+        assertEquals(2, response.getSeries().get(0).getOrders());
+        assertEquals(
+            new BigDecimal("40.00"),
+            response.getSeries().get(0).getRevenue()
+        );
+    }
+
+    @Test
+    void testGetSeries_WidensAPartialWeekToWholeWeeks() {
+        // Arrange: Wed 2026-03-04 to Tue 2026-03-10 cuts into two weeks
+        when(
+            rollupRepo.findRange(eq(SalesRollup.Grain.DAY), any(), any())
+        ).thenReturn(
+            List.of(
+                row("2026-03-02T00:00", SalesRollup.ALL, 1, 1, "10.00"),
+                row("2026-03-15T00:00", SalesRollup.ALL, 1, 1, "20.00")
+            )
+        );
+
+        // Act
+        AnalyticsResponse response = analyticsService.getSeries(
+            LocalDate.of(2026, 3, 4),
+            LocalDate.of(2026, 3, 10),
+            "week"
+        );
+
+        // Assert: read from Monday the 2nd up to Monday the 16th
+        verify(rollupRepo).findRange(
+            SalesRollup.Grain.DAY,
+            LocalDateTime.parse("2026-03-02T00:00"),
+            LocalDateTime.parse("2026-03-16T00:00")
+        );
+        assertEquals(LocalDate.of(2026, 3, 2), response.getFrom());
+        assertEquals(LocalDate.of(2026, 3, 15), response.getTo());
+        assertEquals(2, response.getSeries().size());
+        assertEquals(1, response.getSeries().get(0).getOrders());
+        assertEquals(1, response.getSeries().get(1).getOrders());
+    }
+
+    @Test
+    void testGetSeries_RejectsHourlyRangeOverAMonth() {
+        assertThrows(IllegalArgumentException.class, () ->
+            analyticsService.getSeries(
+                LocalDate.of(2026, 1, 1),
+                LocalDate.of(2026, 6, 1),
+                "hour"
+            )
+        );
+        verifyNoInteractions(rollupRepo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnOrderCompleted_AddsStoreAndCategoryRowsPerGrain() {
+        // Arrange
+        OrderCompletedEvent event = new OrderCompletedEvent(
+            42L,
+            LocalDateTime.parse("2026-03-01T14:35"),
+            new BigDecimal("70.00"),
+            List.of(
+                line(1, ProductCategory.ELECTRONICS, 1, "50.00"),
+                line(2, ProductCategory.BOOKS_STATIONERY, 2, "20.00")
+            )
+        );
+
+        // Act
+        analyticsService.onOrderCompleted(event);
+
+        // Assert: (ALL, books, electronics) for the hour, then for the day
+        ArgumentCaptor<List<Delta>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(rollupJdbcRepo).add(deltas.capture());
+        List<Delta> rows = deltas.getValue();
+        assertEquals(6, rows.size());
+        assertEquals(
+            new Delta(
+                SalesRollup.Grain.HOUR,
+                LocalDateTime.parse("2026-03-01T14:00"),
+                SalesRollup.ALL,
+                1,
+                3,
+                new BigDecimal("70.00")
+            ),
+            rows.get(0)
+        );
+        assertEquals("BOOKS_STATIONERY", rows.get(1).category());
+        assertEquals(
+            LocalDateTime.parse("2026-03-01T00:00"),
+            rows.get(3).bucket()
+        );
+    }
+
+    private static SalesRollup row(
+        String bucket,
+        String category,
+        long orders,
+        long units,
+        String revenue
+    ) {
+        SalesRollup row = new SalesRollup();
+        row.setKey(
+            new SalesRollup.Key(
+                SalesRollup.Grain.DAY,
+                LocalDateTime.parse(bucket),
+                category
+            )
+        );
+        row.setOrders(orders);
+        row.setUnits(units);
+        row.setRevenue(new BigDecimal(revenue));
+        return row;
+    }
+
+    private static OrderCompletedEvent.Line line(
+        int productId,
+        ProductCategory category,
+        int quantity,
+        String amount
+    ) {
+        return new OrderCompletedEvent.Line(
+            productId,
+            category,
+            quantity,
+            new BigDecimal(amount)
+        );
+    }
+}
@@ -3,7 +3,9 @@ package com.anish.e_commerce.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.anish.e_commerce.cart.RedisCartStore;
 import com.anish.e_commerce.dto.CartItemResponse;
+import com.anish.e_commerce.dto.CartMutationRequest;
 import com.anish.e_commerce.model.Cart;
 import com.anish.e_commerce.model.CartItem;
 import com.anish.e_commerce.model.Product;
@@ -16,9 +18,11 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -38,6 +42,9 @@ public class CartServiceTest {
     @Mock
     private UserRepo userRepo;
 
+    @Mock
+    private RedisCartStore redisCartStore;
+
     @InjectMocks
     private CartService cartService;
 
@@ -174,4 +181,97 @@ public class CartServiceTest {
         assertTrue(testCart.getItems().isEmpty());
         verify(cartRepo, times(1)).save(testCart);
     }
+
+    @Test
+    void testAddOrUpdateItem_RedisModeLeavesPostgresToTheFlush() {
+        // Arrange
+        when(redisCartStore.isEnabled()).thenReturn(true);
+        CartItemResponse item = new CartItemResponse(
+            1,
+            "Test Duck",
+            new BigDecimal("19.99"),
+            "url",
+            2
+        );
+        when(redisCartStore.put("testuser", 1, 2)).thenReturn(List.of(item));
+
+        // Act
+        List<CartItemResponse> result = cartService.addOrUpdateItem(
+            "testuser",
+            1,
+            2
+        );
+
+        // Assert
+        assertEquals(List.of(item), result);
+        verifyNoInteractions(cartRepo, cartItemRepo, productRepo);
+    }
+
+    @Test
+    void testGetCartByUsername_RedisModeFlushesBeforeReading() {
+        // Arrange
+        when(redisCartStore.isEnabled()).thenReturn(true);
+        when(cartRepo.findByUser_Username("testuser")).thenReturn(
+            Optional.of(testCart)
+        );
+
+        // Act
+        Cart cart = cartService.getCartByUsername("testuser");
+
+        // Assert
+        assertSame(testCart, cart);
+        InOrder order = inOrder(redisCartStore, cartRepo);
+        order.verify(redisCartStore).flush("testuser");
+        order.verify(cartRepo).findByUser_Username("testuser");
+    }
+
+    @Test
+    void testApplyMutations_ValidatesOnceAndWritesOnce() {
+        // Arrange: the cart holds product 1; add product 2, drop product 1
+        CartItem existingItem = new CartItem();
+        existingItem.setProduct(testProduct);
+        existingItem.setQuantity(1);
+        existingItem.setCart(testCart);
+        testCart.getItems().add(existingItem);
+
+        Product mug = new Product();
+        mug.setId(2);
+        when(productRepo.findAllById(Set.of(2))).thenReturn(List.of(mug));
+        when(cartRepo.findByUser_Username("testuser")).thenReturn(
+            Optional.of(testCart)
+        );
+
+        // Act
+        cartService.applyMutations(
+            "testuser",
+            List.of(
+                new CartMutationRequest(2, 1),
+                new CartMutationRequest(1, 0),
+                new CartMutationRequest(2, 3)
+            )
+        );
+
+        // Assert: the last edit of product 2 wins
+        assertEquals(1, testCart.getItems().size());
+        assertEquals(mug, testCart.getItems().get(0).getProduct());
+        assertEquals(3, testCart.getItems().get(0).getQuantity());
+        verify(productRepo, times(1)).findAllById(any());
+        verify(cartRepo, times(1)).save(testCart);
+    }
+
+    @Test
+    void testApplyMutations_RejectsUnknownProductBeforeTouchingCart() {
+        // Arrange
+        when(productRepo.findAllById(Set.of(99))).thenReturn(List.of());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            cartService.applyMutations(
+                "testuser",
+                List.of(new CartMutationRequest(99, 1))
+            )
+        );
+        assertEquals("Invalid Product ID: 99", exception.getMessage());
+        verifyNoInteractions(cartRepo);
+    }
 }
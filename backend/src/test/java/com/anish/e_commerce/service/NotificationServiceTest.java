@@ -0,0 +1,153 @@
+package com.anish.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.dto.CursorPage;
+import com.anish.e_commerce.dto.NotificationResponse;
+import com.anish.e_commerce.notification.UnreadCounter;
+import com.anish.e_commerce.repo.NotificationJdbcRepo;
+import com.anish.e_commerce.repo.NotificationJdbcRepo.Deleted;
+import com.anish.e_commerce.repo.NotificationRepo;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepo notificationRepo;
+
+    @Mock
+    private NotificationJdbcRepo notificationJdbcRepo;
+
+    @Mock
+    private UnreadCounter unreadCounter;
+
+    private NotificationService notificationService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(
+            notificationRepo,
+            notificationJdbcRepo,
+            unreadCounter,
+            Duration.ofDays(90)
+        );
+    }
+
+    @Test
+    void testGetUserNotifications_ReturnsCursorToLastRowOfSlice() {
+        // Arrange: one row more than asked for means another slice exists
+        when(notificationRepo.findNewest(eq(7L), any())).thenReturn(
+            List.of(notification(30L), notification(20L), notification(10L))
+        );
+
+        // Act
+        CursorPage<NotificationResponse> page =
+            notificationService.getUserNotifications(7L, null, 2);
+
+        // Assert
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals("20", page.getNextCursor());
+    }
+
+    @Test
+    void testGetUserNotifications_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () ->
+            notificationService.getUserNotifications(7L, "abc", 20)
+        );
+    }
+
+    @Test
+    void testMarkAsRead_OnlyCountsRealChanges() {
+        // Arrange: someone else's or already read notification matches nothing
+        when(notificationRepo.markRead(1L, 7L)).thenReturn(1);
+        when(notificationRepo.markRead(2L, 7L)).thenReturn(0);
+
+        // Act
+        notificationService.markAsRead(7L, 1L);
+        notificationService.markAsRead(7L, 2L);
+
+        // Assert
+        verify(unreadCounter, times(1)).add(List.of(7L), -1);
+    }
+
+    @Test
+    void testMarkAsRead_RolledBackLeavesTheCounterAlone() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(notificationRepo.markRead(1L, 7L)).thenReturn(1);
+
+        // Act
+        notificationService.markAsRead(7L, 1L);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        // Assert
+        verifyNoInteractions(unreadCounter);
+    }
+
+    @Test
+    void testMarkAllAsRead_InvalidatesCounterAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(notificationRepo.markAllRead(7L)).thenReturn(12);
+
+        // Act
+        int updated = notificationService.markAllAsRead(7L);
+
+        // Assert: nothing reaches Redis until the commit, and then the next
+        // read recounts instead of trusting a stored 0
+        assertEquals(12, updated);
+        verifyNoInteractions(unreadCounter);
+        TransactionSynchronizationUtils.invokeAfterCommit(
+            TransactionSynchronizationManager.getSynchronizations()
+        );
+        verify(unreadCounter).invalidate(7L);
+    }
+
+    @Test
+    void testPurgeExpired_DeletesInBatchesAndAdjustsUnreadCounters() {
+        // Arrange: a full batch, then a short one
+        List<Deleted> full = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            full.add(new Deleted(1L, false));
+        }
+        when(notificationJdbcRepo.deleteOlderThan(any(), eq(1_000)))
+            .thenReturn(full)
+            .thenReturn(List.of(new Deleted(2L, true), new Deleted(3L, false)));
+
+        // Act
+        notificationService.purgeExpired();
+
+        // Assert: only the unread row moves a counter
+        verify(notificationJdbcRepo, times(2)).deleteOlderThan(any(), eq(1_000));
+        verify(unreadCounter).add(List.of(2L), -1);
+    }
+
+    private static NotificationResponse notification(Long id) {
+        return new NotificationResponse(id, "Back in stock", false, new Date());
+    }
+}
@@ -3,17 +3,20 @@ package com.anish.e_commerce.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.anish.e_commerce.dto.OrderDetailResponse;
+import com.anish.e_commerce.event.OrderCompletedEvent;
 import com.anish.e_commerce.model.*;
 import com.anish.e_commerce.repo.OrderRepo;
-import com.anish.e_commerce.repo.ProductRepo;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 public class OrderServiceTest {
@@ -22,10 +25,16 @@ public class OrderServiceTest {
     private OrderRepo orderRepo;
 
     @Mock
-    private ProductRepo productRepo;
+    private CartService cartService;
 
     @Mock
-    private CartService cartService;
+    private PaymentService paymentService;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private OrderService orderService;
@@ -57,30 +66,29 @@ public class OrderServiceTest {
     }
 
     @Test
-    void testPlaceOrder_Success_DeductsInventoryAndClearsCart() {
+    void testPlaceOrder_Success_ReservesStockAndKeepsCart() throws Exception {
         // Arrange
         testCart.getItems().add(testCartItem);
         when(cartService.getCartByUsername("testuser")).thenReturn(testCart);
-        when(orderRepo.save(any(Order.class))).thenAnswer(i ->
-            i.getArguments()[0]
-        );
+        when(orderRepo.save(any(Order.class))).thenAnswer(i -> {
+            Order order = i.getArgument(0);
+            order.setId(42L);
+            return order;
+        });
+        when(
+            paymentService.createRazorpayOrder(new BigDecimal("200.00"), "42")
+        ).thenReturn("order_rzp_1");
 
         // Act
         Order createdOrder = orderService.placeOrder("testuser");
 
-        // Assert
-        assertNotNull(createdOrder);
-        assertEquals("COMPLETED", createdOrder.getStatus());
+        // Assert: the order waits for payment while its stock is held
+        assertEquals("PENDING", createdOrder.getStatus());
         assertEquals(testUser, createdOrder.getUser());
-
-        // Inventory should be deducted (10 - 2 = 8)
-        assertEquals(8, testProduct.getQuantity());
-        assertTrue(testProduct.isAvailable());
-
-        // Verifications
-        verify(productRepo, times(1)).save(testProduct);
-        verify(cartService, times(1)).clearCart("testuser");
-        verify(orderRepo, times(1)).save(any(Order.class));
+        assertEquals("order_rzp_1", createdOrder.getRazorpayOrderId());
+        verify(stockReservationService, times(1)).reserve(createdOrder);
+        verify(cartService, never()).clearCart(anyString());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -101,12 +109,20 @@ public class OrderServiceTest {
     }
 
     @Test
-    void testPlaceOrder_FailsWhenNotEnoughStock() {
-        // Arrange: User tries to buy 15, but only 10 are in stock
+    void testPlaceOrder_FailsWhenNotEnoughStock() throws Exception {
+        // Arrange: the atomic reservation finds too little stock
         testCartItem.setQuantity(15);
         testCart.getItems().add(testCartItem);
 
         when(cartService.getCartByUsername("testuser")).thenReturn(testCart);
+        when(orderRepo.save(any(Order.class))).thenAnswer(i ->
+            i.getArguments()[0]
+        );
+        when(stockReservationService.reserve(any(Order.class))).thenThrow(
+            new RuntimeException(
+                "Sorry, Duck Keyboard does not have enough stock."
+            )
+        );
 
         // Act & Assert
         RuntimeException exception = assertThrows(
@@ -119,27 +135,106 @@ public class OrderServiceTest {
         assertTrue(
             exception.getMessage().contains("does not have enough stock")
         );
-        assertEquals(10, testProduct.getQuantity()); // Stock should remain untouched
-        verify(productRepo, never()).save(any(Product.class));
+        verify(paymentService, never()).createRazorpayOrder(any(), any());
     }
 
     @Test
-    void testPlaceOrder_ExactStockPurchase_SetsProductToUnavailable() {
-        // Arrange: User buys exactly the remaining stock (10)
-        testCartItem.setQuantity(10);
-        testCart.getItems().add(testCartItem);
+    void testProcessSuccessfulPayment_CommitsReservationAndClearsCart() {
+        // Arrange
+        Order order = pendingOrder();
+        when(orderRepo.findByRazorpayOrderId("order_rzp_1")).thenReturn(
+            Optional.of(order)
+        );
 
-        when(cartService.getCartByUsername("testuser")).thenReturn(testCart);
-        when(orderRepo.save(any(Order.class))).thenAnswer(i ->
-            i.getArguments()[0]
+        // Act
+        orderService.processSuccessfulPayment("order_rzp_1");
+
+        // Assert
+        assertEquals("COMPLETED", order.getStatus());
+        verify(stockReservationService, times(1)).commit(order);
+        verify(cartService, times(1)).clearCart("testuser");
+        verify(eventPublisher, times(1)).publishEvent(
+            any(OrderCompletedEvent.class)
+        );
+    }
+
+    @Test
+    void testProcessSuccessfulPayment_IgnoresDuplicateCallbacks() {
+        // Arrange
+        Order order = pendingOrder();
+        order.setStatus("COMPLETED");
+        when(orderRepo.findByRazorpayOrderId("order_rzp_1")).thenReturn(
+            Optional.of(order)
         );
 
         // Act
-        orderService.placeOrder("testuser");
+        orderService.processSuccessfulPayment("order_rzp_1");
+
+        // Assert: stock is never committed twice
+        verify(stockReservationService, never()).commit(any());
+        verify(cartService, never()).clearCart(anyString());
+    }
+
+    @Test
+    void testProcessFailedPayment_ReleasesReservedStock() {
+        // Arrange
+        Order order = pendingOrder();
+        when(orderRepo.findByRazorpayOrderId("order_rzp_1")).thenReturn(
+            Optional.of(order)
+        );
+
+        // Act
+        orderService.processFailedPayment("order_rzp_1");
 
         // Assert
-        assertEquals(0, testProduct.getQuantity()); // Stock should be 0
-        assertFalse(testProduct.isAvailable()); // Product should automatically become unavailable
-        verify(productRepo, times(1)).save(testProduct);
+        assertEquals("REJECTED", order.getStatus());
+        verify(stockReservationService, times(1)).release(order);
+    }
+
+    @Test
+    void testGetOrderDetail_MapsLinesForOwner() {
+        // Arrange
+        Order order = pendingOrder();
+        OrderItem item = new OrderItem();
+        item.setId(7L);
+        item.setProduct(testProduct);
+        item.setQuantity(2);
+        item.setPriceAtPurchase(new BigDecimal("100.00"));
+        order.getItems().add(item);
+        when(orderRepo.findDetailById(42L)).thenReturn(Optional.of(order));
+
+        // Act
+        OrderDetailResponse detail = orderService.getOrderDetail(
+            "testuser",
+            42L
+        );
+
+        // Assert
+        assertEquals(1, detail.getItems().size());
+        assertEquals("Duck Keyboard", detail.getItems().get(0).getName());
+        assertEquals(2, detail.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testGetOrderDetail_HidesOtherUsersOrders() {
+        // Arrange
+        when(orderRepo.findDetailById(42L)).thenReturn(
+            Optional.of(pendingOrder())
+        );
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            orderService.getOrderDetail("someoneelse", 42L)
+        );
+        assertEquals("Order not found", exception.getMessage());
+    }
+
+    private Order pendingOrder() {
+        Order order = new Order();
+        order.setId(42L);
+        order.setUser(testUser);
+        order.setStatus("PENDING");
+        order.setRazorpayOrderId("order_rzp_1");
+        return order;
     }
 }
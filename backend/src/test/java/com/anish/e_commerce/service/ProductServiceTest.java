@@ -3,22 +3,35 @@ package com.anish.e_commerce.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.anish.e_commerce.cache.ProductCacheIndex;
+import com.anish.e_commerce.cache.ProductCacheKeys;
+import com.anish.e_commerce.dto.CursorPage;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.event.ProductChangedEvent;
+import com.anish.e_commerce.inventory.HotSkuInventory;
 import com.anish.e_commerce.model.Product;
 import com.anish.e_commerce.repo.ProductRepo;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceTest {
@@ -29,6 +42,15 @@ public class ProductServiceTest {
     @Mock
     private ImageHandleService imageHandleService;
 
+    @Mock
+    private ProductCacheIndex productCacheIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HotSkuInventory hotSkuInventory;
+
     @InjectMocks
     private ProductService productService; // Injects the mocked repo into the service
 
@@ -45,29 +67,200 @@ public class ProductServiceTest {
             Product.ProductCategory.TOYS_GAMES,
             new Date(),
             true,
+            false,
             10,
             "url"
         );
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void testGetAllProducts() {
-        // Arrange: Create a fake Page of products
-        Page<Product> dummyPage = new PageImpl<>(List.of(dummyProduct));
+        // Arrange: Create a fake Page of product cards
+        Page<ProductCardResponse> dummyPage = new PageImpl<>(
+            List.of(ProductCardResponse.from(dummyProduct))
+        );
 
         // Tell the mock database to return the fake Page when asked for ANY Pageable
-        when(productRepo.findAll(any(PageRequest.class))).thenReturn(dummyPage);
+        when(productRepo.findAllCards(any(PageRequest.class))).thenReturn(
+            dummyPage
+        );
+
+        // A cache miss: the index runs the loader
+        when(
+            productCacheIndex.getOrLoad(eq("page-0-size-12"), any(), any())
+        ).thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
 
         // Act: Call the actual service method with page 0, size 12
-        Page<Product> productPage = productService.getAllProducts(0, 12);
+        Page<ProductCardResponse> productPage = productService.getAllProducts(
+            0,
+            12
+        );
 
         // Assert: Verify the results by extracting the content from the Page
-        List<Product> products = productPage.getContent();
+        List<ProductCardResponse> products = productPage.getContent();
         assertEquals(1, products.size());
         assertEquals("Test Duck", products.get(0).getName());
 
-        // Verify the paginated version of findAll was called exactly once
-        verify(productRepo, times(1)).findAll(any(PageRequest.class));
+        // Verify the paginated card projection was called exactly once
+        verify(productRepo, times(1)).findAllCards(any(PageRequest.class));
+
+        // The cached page must be tagged with the product ids it contains
+        ArgumentCaptor<Function<Page<ProductCardResponse>, Collection<Integer>>> tags =
+            ArgumentCaptor.forClass(Function.class);
+        verify(productCacheIndex, times(1)).getOrLoad(
+            eq("page-0-size-12"),
+            any(),
+            tags.capture()
+        );
+        assertEquals(
+            List.of(dummyProduct.getId()),
+            tags.getValue().apply(productPage)
+        );
+    }
+
+    @Test
+    void testGetFilteredProducts_KeysTheCacheByTheClampedPage() {
+        // Arrange
+        when(productCacheIndex.getOrLoad(anyString(), any(), any())).thenAnswer(
+            i -> i.<Supplier<Object>>getArgument(1).get()
+        );
+        when(
+            productRepo.filterProducts(
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(PageRequest.class)
+            )
+        ).thenReturn(new SliceImpl<>(List.of()));
+
+        // Act: a negative page, an oversized page and a shouty sort
+        productService.getFilteredProducts(
+            null,
+            null,
+            null,
+            null,
+            null,
+            "DESC",
+            -3,
+            5_000
+        );
+
+        // Assert: one key for what was queried, not one per raw value
+        verify(productCacheIndex).getOrLoad(
+            eq(
+                ProductCacheKeys.filter(
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    "desc",
+                    0,
+                    100
+                )
+            ),
+            any(),
+            any()
+        );
+        verify(productRepo).filterProducts(
+            null,
+            null,
+            null,
+            null,
+            null,
+            PageRequest.of(0, 100, Sort.by("price").descending())
+        );
+    }
+
+    @Test
+    void testScrollProducts_ReturnsCursorThatSeeksPastLastRow() {
+        // Arrange: ask for 1 product while the repo finds 2, so there is a next slice
+        ProductCardResponse newer = ProductCardResponse.from(dummyProduct);
+        newer.setId(2);
+        newer.setName("Newer Duck");
+        ProductCardResponse older = ProductCardResponse.from(dummyProduct);
+        when(productRepo.findNewestFirst(any(PageRequest.class))).thenReturn(
+            List.of(newer, older)
+        );
+
+        // Act
+        CursorPage<ProductCardResponse> first = productService.scrollProducts(
+            null,
+            1,
+            "newest"
+        );
+
+        // Assert: only the requested card comes back, with a cursor to continue
+        assertEquals(List.of(newer), first.getContent());
+        assertTrue(first.isHasNext());
+        assertNotNull(first.getNextCursor());
+
+        // Act: follow the cursor
+        when(
+            productRepo.findNewestAfter(
+                eq(newer.getCreatedAt()),
+                eq(2),
+                any(PageRequest.class)
+            )
+        ).thenReturn(List.of(older));
+        CursorPage<ProductCardResponse> second = productService.scrollProducts(
+            first.getNextCursor(),
+            1,
+            "newest"
+        );
+
+        // Assert: the seek resumes after the last row and the scroll ends
+        assertEquals(List.of(older), second.getContent());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testScrollProducts_UndatedBoundaryRowSeeksAmongUndatedRows() {
+        // Arrange: the slice ends on a product with no created_at
+        ProductCardResponse undated = ProductCardResponse.from(dummyProduct);
+        undated.setId(7);
+        undated.setCreatedAt(null);
+        ProductCardResponse older = ProductCardResponse.from(dummyProduct);
+        older.setId(6);
+        older.setCreatedAt(null);
+        when(productRepo.findNewestFirst(any(PageRequest.class))).thenReturn(
+            List.of(undated, older)
+        );
+
+        // Act
+        CursorPage<ProductCardResponse> first = productService.scrollProducts(
+            null,
+            1,
+            "newest"
+        );
+        when(
+            productRepo.findUndatedAfter(eq(7), any(PageRequest.class))
+        ).thenReturn(List.of(older));
+        CursorPage<ProductCardResponse> second = productService.scrollProducts(
+            first.getNextCursor(),
+            1,
+            "newest"
+        );
+
+        // Assert: no NPE, and the dated seek is not used past an undated row
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(older), second.getContent());
+        verify(productRepo, never()).findNewestAfter(any(), anyInt(), any());
+    }
+
+    @Test
+    void testToPrefixQuery_BuildsSafeTypeAheadQuery() {
+        // Each word becomes a prefix term; tsquery operators are stripped out
+        assertEquals(
+            "duck:* & key:*",
+            ProductService.toPrefixQuery("  Duck  KEY")
+        );
+        assertEquals("rgb:* & duck:*", ProductService.toPrefixQuery("rgb&!duck:*"));
+        assertEquals("", ProductService.toPrefixQuery("!!"));
     }
 
     @Test
@@ -103,6 +296,7 @@ public class ProductServiceTest {
             Product.ProductCategory.TOYS_GAMES,
             new Date(),
             false,
+            false,
             50,
             "url" // User maliciously tries to set quantity to 50 while unavailable
         );
@@ -125,6 +319,70 @@ public class ProductServiceTest {
         verify(productRepo, times(1)).save(any(Product.class));
     }
 
+    @Test
+    void testUpdateProduct_DisabledProductWithOpenHold_StaysHidden()
+        throws IOException {
+        // Arrange: a listed product with units held by a pending checkout
+        when(productRepo.findById(1)).thenReturn(Optional.of(dummyProduct));
+        when(productRepo.save(any(Product.class))).thenAnswer(i ->
+            i.getArguments()[0]
+        );
+        Product disable = copyOf(dummyProduct);
+        disable.setAvailable(false);
+
+        // Act
+        Product result = productService.updateProduct(disable);
+
+        // Assert: not sold out, so giving the held units back won't re-list it
+        assertFalse(result.isAvailable());
+        assertFalse(result.isSoldOut());
+        verify(hotSkuInventory).reseed(1, 0);
+    }
+
+    @Test
+    void testUpdateProduct_EditingASoldOutProduct_KeepsItSoldOut()
+        throws IOException {
+        // Arrange: hidden only because its stock ran out
+        dummyProduct.setAvailable(false);
+        dummyProduct.setSoldOut(true);
+        dummyProduct.setQuantity(0);
+        when(productRepo.findById(1)).thenReturn(Optional.of(dummyProduct));
+        when(productRepo.save(any(Product.class))).thenAnswer(i ->
+            i.getArguments()[0]
+        );
+        Product edit = copyOf(dummyProduct);
+        edit.setDescription("Back soon");
+
+        // Act
+        Product result = productService.updateProduct(edit);
+
+        // Assert
+        assertFalse(result.isAvailable());
+        assertTrue(result.isSoldOut());
+    }
+
+    @Test
+    void testUpdateProduct_Restocking_ClearsSoldOut() throws IOException {
+        // Arrange
+        dummyProduct.setAvailable(false);
+        dummyProduct.setSoldOut(true);
+        dummyProduct.setQuantity(0);
+        when(productRepo.findById(1)).thenReturn(Optional.of(dummyProduct));
+        when(productRepo.save(any(Product.class))).thenAnswer(i ->
+            i.getArguments()[0]
+        );
+        Product restock = copyOf(dummyProduct);
+        restock.setAvailable(true);
+        restock.setQuantity(5);
+
+        // Act
+        Product result = productService.updateProduct(restock);
+
+        // Assert
+        assertTrue(result.isAvailable());
+        assertFalse(result.isSoldOut());
+    }
+
     @Test
     void testUpdateProduct_WhenImageUrlChanges_OldImageIsDeleted()
         throws IOException {
@@ -143,6 +401,7 @@ public class ProductServiceTest {
             Product.ProductCategory.TOYS_GAMES,
             new Date(),
             true,
+            false,
             10,
             "http://new-image.com/duck.jpg"
         );
@@ -172,5 +431,27 @@ public class ProductServiceTest {
         // Assert: Ensure both the image service and the DB delete methods were triggered
         verify(imageHandleService, times(1)).deleteImageByUrl(imageUrl);
         verify(productRepo, times(1)).deleteById(1);
+
+        // Cache invalidation is announced for just this product
+        verify(eventPublisher, times(1)).publishEvent(
+            new ProductChangedEvent(1, ProductChangedEvent.Type.DELETED)
+        );
+    }
+
+    // An admin edit arrives as a detached copy of what the form showed
+    private static Product copyOf(Product product) {
+        return new Product(
+            product.getId(),
+            product.getName(),
+            product.getDescription(),
+            product.getBrand(),
+            product.getPrice(),
+            product.getCategory(),
+            product.getCreatedAt(),
+            product.isAvailable(),
+            false,
+            product.getQuantity(),
+            product.getImageUrl()
+        );
     }
 }
@@ -0,0 +1,155 @@
+package com.anish.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.dto.NotificationResponse;
+import com.anish.e_commerce.dto.RestockFanoutProgress;
+import com.anish.e_commerce.dto.UserNotification;
+import com.anish.e_commerce.event.ProductRestockedEvent;
+import com.anish.e_commerce.notification.NotificationHub;
+import com.anish.e_commerce.notification.UnreadCounter;
+import com.anish.e_commerce.repo.NotificationJdbcRepo;
+import com.anish.e_commerce.repo.NotificationJdbcRepo.Chunk;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class RestockFanoutServiceTest {
+
+    private static final String MESSAGE =
+        "Good news! Rubber Duck is back in stock.";
+
+    @Mock
+    private NotificationJdbcRepo notificationJdbcRepo;
+
+    @Mock
+    private NotificationHub notificationHub;
+
+    @Mock
+    private UnreadCounter unreadCounter;
+
+    private RestockFanoutService fanoutService;
+
+    @BeforeEach
+    void setUp() {
+        fanoutService = new RestockFanoutService(
+            notificationJdbcRepo,
+            notificationHub,
+            unreadCounter,
+            2
+        );
+    }
+
+    @Test
+    void testOnProductRestocked_SeeksChunkByChunkUntilAShortOne() {
+        // Arrange: five wishers in chunks of two
+        when(notificationJdbcRepo.insertRestockChunk(5, 0, 2, MESSAGE))
+            .thenReturn(chunk(10, 1, 2));
+        when(notificationJdbcRepo.insertRestockChunk(5, 10, 2, MESSAGE))
+            .thenReturn(chunk(25, 3, 4));
+        when(notificationJdbcRepo.insertRestockChunk(5, 25, 2, MESSAGE))
+            .thenReturn(chunk(31, 5));
+
+        // Act
+        fanoutService.onProductRestocked(restocked(5));
+
+        // Assert: each chunk resumes after the last wishlist row of the one
+        // before, and the short one ends the run
+        InOrder inOrder = inOrder(notificationJdbcRepo, unreadCounter);
+        inOrder
+            .verify(notificationJdbcRepo)
+            .insertRestockChunk(5, 0, 2, MESSAGE);
+        inOrder.verify(unreadCounter).add(List.of(1L, 2L), 1);
+        inOrder
+            .verify(notificationJdbcRepo)
+            .insertRestockChunk(5, 10, 2, MESSAGE);
+        inOrder.verify(unreadCounter).add(List.of(3L, 4L), 1);
+        inOrder
+            .verify(notificationJdbcRepo)
+            .insertRestockChunk(5, 25, 2, MESSAGE);
+        inOrder.verify(unreadCounter).add(List.of(5L), 1);
+        verifyNoMoreInteractions(notificationJdbcRepo);
+        verify(notificationHub, times(3)).publish(anyList());
+
+        RestockFanoutProgress job = fanoutService.recentJobs().get(0);
+        assertEquals("DONE", job.getStatus());
+        assertEquals(5, job.getNotified());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void testOnProductRestocked_FailurePartwayKeepsTheProgressMade() {
+        // Arrange: the second chunk hits a broken connection
+        when(notificationJdbcRepo.insertRestockChunk(5, 0, 2, MESSAGE))
+            .thenReturn(chunk(10, 1, 2));
+        when(
+            notificationJdbcRepo.insertRestockChunk(5, 10, 2, MESSAGE)
+        ).thenThrow(new RuntimeException("connection reset"));
+
+        // Act
+        fanoutService.onProductRestocked(restocked(5));
+
+        // Assert
+        RestockFanoutProgress job = fanoutService.recentJobs().get(0);
+        assertEquals("FAILED", job.getStatus());
+        assertEquals(2, job.getNotified());
+        assertNotNull(job.getFinishedAt());
+        verify(unreadCounter, times(1)).add(anyList(), eq(1L));
+        verify(notificationHub, times(1)).publish(anyList());
+    }
+
+    @Test
+    void testRecentJobs_KeepsTheNewestFiftyNewestFirst() {
+        // Arrange: nobody wishes for anything
+        when(
+            notificationJdbcRepo.insertRestockChunk(
+                anyInt(),
+                eq(0L),
+                eq(2),
+                anyString()
+            )
+        ).thenReturn(new Chunk(List.of(), 0));
+
+        // Act
+        for (int productId = 1; productId <= 51; productId++) {
+            fanoutService.onProductRestocked(restocked(productId));
+        }
+
+        // Assert: product 1's job was dropped
+        List<RestockFanoutProgress> jobs = fanoutService.recentJobs();
+        assertEquals(50, jobs.size());
+        assertEquals(51, jobs.get(0).getProductId());
+        assertEquals(2, jobs.get(49).getProductId());
+        assertEquals("DONE", jobs.get(0).getStatus());
+    }
+
+    private static ProductRestockedEvent restocked(int productId) {
+        return new ProductRestockedEvent(productId, "Rubber Duck");
+    }
+
+    private static Chunk chunk(long lastWishlistId, long... userIds) {
+        List<UserNotification> inserted = LongStream.of(userIds)
+            .mapToObj(userId ->
+                new UserNotification(
+                    userId,
+                    new NotificationResponse(
+                        100 + userId,
+                        MESSAGE,
+                        false,
+                        new Date()
+                    )
+                )
+            )
+            .toList();
+        return new Chunk(inserted, lastWishlistId);
+    }
+}
@@ -0,0 +1,225 @@
+package com.anish.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.event.StockChangedEvent;
+import com.anish.e_commerce.inventory.HotSkuInventory;
+import com.anish.e_commerce.model.Order;
+import com.anish.e_commerce.model.OrderItem;
+import com.anish.e_commerce.model.Product;
+import com.anish.e_commerce.model.StockReservation;
+import com.anish.e_commerce.repo.OrderRepo;
+import com.anish.e_commerce.repo.StockJdbcRepo;
+import com.anish.e_commerce.repo.StockJdbcRepo.HeldStock;
+import com.anish.e_commerce.repo.StockReservationRepo;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepo reservationRepo;
+
+    @Mock
+    private StockJdbcRepo stockJdbcRepo;
+
+    @Mock
+    private OrderRepo orderRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HotSkuInventory hotSkuInventory;
+
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationService(
+            reservationRepo,
+            stockJdbcRepo,
+            orderRepo,
+            eventPublisher,
+            hotSkuInventory,
+            Duration.ofMinutes(15)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReserve_TakesAllStockInOneBatchInProductIdOrder() {
+        // Arrange: items arrive in cart order, not id order
+        Order order = order(item(7, "Lamp", 1), item(3, "Mug", 2));
+        when(reservationRepo.saveAll(anyList())).thenAnswer(i ->
+            i.getArgument(0)
+        );
+
+        // Act
+        List<StockReservation> reservations = stockReservationService.reserve(
+            order
+        );
+
+        // Assert: one batch, rows always locked in the same order
+        ArgumentCaptor<SortedMap<Integer, Integer>> batch =
+            ArgumentCaptor.forClass(SortedMap.class);
+        verify(stockJdbcRepo, times(1)).takeStock(batch.capture());
+        assertEquals(List.of(3, 7), List.copyOf(batch.getValue().keySet()));
+        assertEquals(2, reservations.size());
+        assertEquals(
+            StockReservation.Status.ACTIVE,
+            reservations.get(0).getStatus()
+        );
+
+        // And one change event for the whole order
+        verify(eventPublisher, times(1)).publishEvent(
+            new StockChangedEvent(Set.of(3, 7))
+        );
+    }
+
+    @Test
+    void testReserve_FailsWhenConditionalDecrementMatchesNoRow() {
+        // Arrange
+        Order order = order(item(1, "Duck Keyboard", 15));
+        when(stockJdbcRepo.takeStock(any())).thenReturn(List.of(1));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(
+            RuntimeException.class,
+            () -> stockReservationService.reserve(order)
+        );
+
+        assertEquals(
+            "Sorry, Duck Keyboard does not have enough stock.",
+            exception.getMessage()
+        );
+        verify(reservationRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testRelease_ReturnsStockOnlyOnce() {
+        // Arrange: a failed payment and the expiry sweep race on one hold
+        Order order = order();
+        when(
+            stockJdbcRepo.finishActive(42L, StockReservation.Status.RELEASED)
+        )
+            .thenReturn(
+                List.of(
+                    new HeldStock(5L, 42L, 1, 2, StockReservation.Source.DATABASE)
+                )
+            )
+            .thenReturn(List.of());
+
+        // Act
+        stockReservationService.release(order);
+        stockReservationService.release(order);
+
+        // Assert
+        verify(stockJdbcRepo, times(1)).giveBackStock(
+            new TreeMap<>(Map.of(1, 2))
+        );
+        verify(eventPublisher, times(1)).publishEvent(
+            new StockChangedEvent(Set.of(1))
+        );
+    }
+
+    @Test
+    void testCommit_MovesRedisHoldsToSoldWithoutRetaking() {
+        // Arrange
+        Order order = order(item(1, "Duck Keyboard", 2));
+        when(
+            stockJdbcRepo.finishActive(42L, StockReservation.Status.COMMITTED)
+        ).thenReturn(
+            List.of(new HeldStock(5L, 42L, 1, 2, StockReservation.Source.REDIS))
+        );
+
+        // Act
+        stockReservationService.commit(order);
+
+        // Assert
+        verify(hotSkuInventory, times(1)).commit(1, 2);
+        verify(reservationRepo, never()).findByOrder_IdAndStatus(any(), any());
+    }
+
+    @Test
+    void testReserve_HotSkuIsHeldInRedisWithoutTouchingTheRow() {
+        // Arrange
+        Order order = order(item(1, "Duck Keyboard", 3));
+        when(hotSkuInventory.isHot(1)).thenReturn(true);
+        when(hotSkuInventory.reserve(1, 3)).thenReturn(1L);
+        when(reservationRepo.saveAll(anyList())).thenAnswer(i ->
+            i.getArgument(0)
+        );
+
+        // Act
+        List<StockReservation> reservations = stockReservationService.reserve(
+            order
+        );
+
+        // Assert: nothing is left for Postgres to decrement
+        assertEquals(
+            StockReservation.Source.REDIS,
+            reservations.get(0).getSource()
+        );
+        verify(stockJdbcRepo).takeStock(argThat(Map::isEmpty));
+    }
+
+    @Test
+    void testReserve_HotSkuWithoutCounterFallsBackToPostgres() {
+        // Arrange: flagged, but the counter was never seeded
+        Order order = order(item(1, "Duck Keyboard", 3));
+        when(hotSkuInventory.isHot(1)).thenReturn(true);
+        when(hotSkuInventory.reserve(1, 3)).thenReturn(
+            HotSkuInventory.NOT_TRACKED
+        );
+        when(reservationRepo.saveAll(anyList())).thenAnswer(i ->
+            i.getArgument(0)
+        );
+
+        // Act
+        List<StockReservation> reservations = stockReservationService.reserve(
+            order
+        );
+
+        // Assert
+        assertEquals(
+            StockReservation.Source.DATABASE,
+            reservations.get(0).getSource()
+        );
+    }
+
+    private static Order order(OrderItem... items) {
+        Order order = new Order();
+        order.setId(42L);
+        order.setStatus("PENDING");
+        for (OrderItem item : items) {
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+
+    private static OrderItem item(int productId, String name, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setName(name);
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
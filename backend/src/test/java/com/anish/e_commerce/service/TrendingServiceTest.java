@@ -0,0 +1,117 @@
+package com.anish.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.anish.e_commerce.cache.CompactValueSerializer;
+import com.anish.e_commerce.config.CacheConfig;
+import com.anish.e_commerce.dto.ProductCardResponse;
+import com.anish.e_commerce.dto.TrendingProductResponse;
+import com.anish.e_commerce.repo.ProductRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+public class TrendingServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private ProductRepo productRepo;
+
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        trendingService = new TrendingService(redisTemplate, productRepo);
+    }
+
+    @Test
+    void testGetTrending_KeepsRankOrderAndSkipsDeletedProducts() {
+        // Arrange: product 9 sold most but has since been deleted
+        Set<TypedTuple<String>> ranked = new LinkedHashSet<>();
+        ranked.add(new DefaultTypedTuple<>("9", 12.0));
+        ranked.add(new DefaultTypedTuple<>("3", 7.0));
+        ranked.add(new DefaultTypedTuple<>("5", 2.0));
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.hasKey(anyString())).thenReturn(true);
+        when(
+            zSetOperations.reverseRangeWithScores(anyString(), eq(0L), eq(9L))
+        ).thenReturn(ranked);
+        when(productRepo.findCardsByIdIn(List.of(9, 3, 5))).thenReturn(
+            List.of(card(5, "Mug"), card(3, "Lamp"))
+        );
+
+        // Act
+        List<TrendingProductResponse> trending = trendingService.getTrending(
+            "24h",
+            null,
+            10
+        );
+
+        // Assert
+        assertEquals(2, trending.size());
+        assertEquals("Lamp", trending.get(0).getProduct().getName());
+        assertEquals(7, trending.get(0).getUnitsSold());
+        assertEquals("Mug", trending.get(1).getProduct().getName());
+    }
+
+    @Test
+    void testGetTrending_RejectsUnknownWindow() {
+        assertThrows(IllegalArgumentException.class, () ->
+            trendingService.getTrending("30d", null, 10)
+        );
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testGetTrending_EmptyWindowSurvivesTheCacheCodec() {
+        // Arrange: no sales in the window
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.hasKey(anyString())).thenReturn(true);
+        when(
+            zSetOperations.reverseRangeWithScores(anyString(), eq(0L), eq(9L))
+        ).thenReturn(Set.of());
+        CompactValueSerializer serializer = CacheConfig.valueSerializer(
+            "smile",
+            DataSize.ofKilobytes(1),
+            new SimpleMeterRegistry(),
+            "trending"
+        );
+
+        // Act
+        List<TrendingProductResponse> trending = trendingService.getTrending(
+            "1h",
+            null,
+            10
+        );
+        Object cached = serializer.deserialize(serializer.serialize(trending));
+
+        // Assert: a cache hit reads back the same empty ranking
+        assertEquals(List.of(), cached);
+        verifyNoInteractions(productRepo);
+    }
+
+    private static ProductCardResponse card(int id, String name) {
+        ProductCardResponse card = new ProductCardResponse();
+        card.setId(id);
+        card.setName(name);
+        return card;
+    }
+}
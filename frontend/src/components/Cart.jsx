@@ -33,41 +33,73 @@ export default function Cart({ closeCart }) {
         setCartTotal(total);
     };
 
-    const updateQuantity = async (productId, delta) => {
+    // Quantity edits are applied locally at once and sent to the server in
+    // one batch after a short pause; 0 removes the product
+    const pendingRef = useRef({});
+    const flushTimerRef = useRef(null);
+
+    const showItems = (items) => {
+        setCartItems(items);
+        calculateTotal(items);
+        setCartItemCount(items.reduce((acc, item) => acc + item.quantity, 0));
+    };
+
+    const flushChanges = async () => {
+        clearTimeout(flushTimerRef.current);
+        const changes = Object.entries(pendingRef.current).map(
+            ([productId, quantity]) => ({
+                productId: Number(productId),
+                quantity,
+            }),
+        );
+        if (changes.length === 0) return;
+        pendingRef.current = {};
+
+        try {
+            const res = await api.patch("/cart", changes);
+            // Newer edits are still queued; their own response will land
+            if (Object.keys(pendingRef.current).length === 0) {
+                showItems(res.data);
+            }
+        } catch (err) {
+            toast.error("Failed to update cart");
+            fetchCart();
+        }
+    };
+
+    const queueChange = (productId, quantity, items) => {
+        pendingRef.current[productId] = quantity;
+        showItems(items);
+        clearTimeout(flushTimerRef.current);
+        flushTimerRef.current = setTimeout(flushChanges, 400);
+    };
+
+    const updateQuantity = (productId, delta) => {
         const item = cartItems.find((item) => item.id === productId);
         if (!item) return;
 
         const newQty = item.quantity + delta;
         if (newQty <= 0) return;
-        try {
-            const res = await api.post(`/cart/${user.username}/add`, null, {
-                params: { productId, quantity: newQty },
-            });
-            setCartItems(res.data);
-            calculateTotal(res.data);
-        } catch (err) {
-            toast.error("Failed to update quantity");
-        }
+        queueChange(
+            productId,
+            newQty,
+            cartItems.map((i) =>
+                i.id === productId ? { ...i, quantity: newQty } : i,
+            ),
+        );
     };
 
-    const removeFromCart = async (productId) => {
-        try {
-            const res = await api.delete(`/cart/${user.username}/remove`, {
-                params: { productId },
-            });
-            setCartItems(res.data);
-            calculateTotal(res.data);
-            const totalCount = res.data.reduce(
-                (acc, item) => acc + item.quantity,
-                0,
-            );
-            setCartItemCount(totalCount);
-        } catch (err) {
-            toast.error("Failed to remove item");
-        }
+    const removeFromCart = (productId) => {
+        queueChange(
+            productId,
+            0,
+            cartItems.filter((item) => item.id !== productId),
+        );
     };
 
     const clearCart = async () => {
+        clearTimeout(flushTimerRef.current);
+        pendingRef.current = {};
         try {
             await api.delete(`/cart/${user.username}/clear`);
             setCartItems([]);
@@ -89,6 +121,7 @@ export default function Cart({ closeCart }) {
     };
 
     const handleCheckout = async () => {
+        await flushChanges();
         const isLoaded = await loadRazorpayScript();
         if (!isLoaded) {
             toast.error("Razorpay SDK failed to load. Are you online?");
@@ -190,6 +223,8 @@ export default function Cart({ closeCart }) {
         return () => {
             clearTimeout(timer);
             document.removeEventListener("mousedown", handleClickOutside);
+            // Closing the cart must not drop edits still waiting to be sent
+            flushChanges();
         };
     }, [closeCart]);
 
@@ -76,6 +76,7 @@ export function Navbar({ setShowCart, onSearchResults }) {
                 if (maxPrice) params.append("maxPrice", maxPrice);
                 if (available !== "") params.append("available", available);
                 params.append("sort", sort);
+                params.append("size", "48");
 
                 const { data } = await api.get(
                     `/products/filter?${params.toString()}`,
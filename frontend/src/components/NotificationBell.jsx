@@ -3,15 +3,85 @@ import { Bell, Check } from "lucide-react";
 import api from "../api/axios";
 import { useTheme } from "../context/ThemeContext";
 
+// Minimal text/event-stream reader: calls onEvent with { name, data }
+async function readEvents(body, onEvent) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = "";
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += value;
+        let end;
+        while ((end = buffer.indexOf("\n\n")) !== -1) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+            const event = { name: "message", data: "" };
+            for (const line of block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    event.name = line.slice(6).trim();
+                } else if (line.startsWith("data:")) {
+                    event.data += line.slice(5).trim();
+                }
+            }
+            if (event.data) onEvent(event);
+        }
+    }
+}
+
 export default function NotificationBell() {
     const [notifications, setNotifications] = useState([]);
+    const [unreadCount, setUnreadCount] = useState(0);
+    const [nextCursor, setNextCursor] = useState(null);
     const [isOpen, setIsOpen] = useState(false);
     const { darkMode } = useTheme();
     const dropdownRef = useRef(null);
 
-    // Fetch notifications on load
+    // Load once, then let the server push new ones. Each reconnect reloads
+    // the list to pick up anything sent while the stream was down.
     useEffect(() => {
-        fetchNotifications();
+        const controller = new AbortController();
+
+        const listen = async () => {
+            let retryDelay = 1000;
+            while (!controller.signal.aborted) {
+                try {
+                    await fetchNotifications();
+                    // EventSource cannot send the Authorization header
+                    const response = await fetch(
+                        "/api/user/notifications/stream",
+                        {
+                            headers: {
+                                Accept: "text/event-stream",
+                                Authorization: `Bearer ${localStorage.getItem("token")}`,
+                            },
+                            signal: controller.signal,
+                        },
+                    );
+                    if (!response.ok) {
+                        throw new Error(`Stream refused: ${response.status}`);
+                    }
+                    retryDelay = 1000;
+                    await readEvents(response.body, (event) => {
+                        if (event.name !== "notification") return;
+                        const notification = JSON.parse(event.data);
+                        setNotifications((current) =>
+                            current.some((n) => n.id === notification.id)
+                                ? current
+                                : [notification, ...current],
+                        );
+                        setUnreadCount((count) => count + 1);
+                    });
+                } catch (error) {
+                    if (controller.signal.aborted) return;
+                    console.error("Notification stream dropped:", error);
+                }
+                await new Promise((resolve) => setTimeout(resolve, retryDelay));
+                retryDelay = Math.min(retryDelay * 2, 30000);
+            }
+        };
+
+        listen();
+        return () => controller.abort();
     }, []);
 
     // Close dropdown if clicking outside of it
@@ -29,15 +99,50 @@ export default function NotificationBell() {
             document.removeEventListener("mousedown", handleClickOutside);
     }, []);
 
+    // First page plus the server-side unread count (not just this page's)
     const fetchNotifications = async () => {
         try {
-            const response = await api.get("/user/notifications");
-            setNotifications(response.data);
+            const [page, unread] = await Promise.all([
+                api.get("/user/notifications"),
+                api.get("/user/notifications/unread-count"),
+            ]);
+            setNotifications(page.data.content);
+            setNextCursor(page.data.nextCursor);
+            setUnreadCount(unread.data.count);
         } catch (error) {
             console.error("Failed to fetch notifications:", error);
         }
     };
 
+    const loadMore = async (e) => {
+        e.stopPropagation();
+        try {
+            const response = await api.get("/user/notifications", {
+                params: { cursor: nextCursor },
+            });
+            setNotifications((current) => [
+                ...current,
+                ...response.data.content,
+            ]);
+            setNextCursor(response.data.nextCursor);
+        } catch (error) {
+            console.error("Failed to load more notifications:", error);
+        }
+    };
+
+    const handleMarkAllAsRead = async (e) => {
+        e.stopPropagation();
+        try {
+            await api.put("/user/notifications/read-all");
+            setNotifications((current) =>
+                current.map((n) => ({ ...n, read: true })),
+            );
+            setUnreadCount(0);
+        } catch (error) {
+            console.error("Failed to mark all read:", error);
+        }
+    };
+
     const handleMarkAsRead = async (id, e) => {
         e.stopPropagation(); // Don't close the dropdown
         try {
@@ -46,13 +151,12 @@ export default function NotificationBell() {
             setNotifications((current) =>
                 current.map((n) => (n.id === id ? { ...n, read: true } : n)),
             );
+            setUnreadCount((count) => Math.max(count - 1, 0));
         } catch (error) {
             console.error("Failed to mark read:", error);
         }
     };
 
-    const unreadCount = notifications.filter((n) => !n.read).length;
-
     return (
         <div className="relative" ref={dropdownRef}>
             <button
@@ -79,9 +183,19 @@ export default function NotificationBell() {
                         className={`p-4 border-b-4 border-black flex justify-between items-center ${darkMode ? "bg-gray-900 text-white" : "bg-yellow-300 text-black"}`}
                     >
                         <h3 className="font-black text-lg">Notifications</h3>
-                        <span className="text-sm font-bold bg-white text-black px-2 py-1 rounded border-2 border-black">
-                            {unreadCount} New
-                        </span>
+                        <div className="flex items-center gap-2">
+                            {unreadCount > 0 && (
+                                <button
+                                    onClick={handleMarkAllAsRead}
+                                    className="text-xs font-bold underline"
+                                >
+                                    Mark all read
+                                </button>
+                            )}
+                            <span className="text-sm font-bold bg-white text-black px-2 py-1 rounded border-2 border-black">
+                                {unreadCount} New
+                            </span>
+                        </div>
                     </div>
 
                     <div className="max-h-96 overflow-y-auto">
@@ -131,6 +245,14 @@ export default function NotificationBell() {
                                 </div>
                             ))
                         )}
+                        {nextCursor && (
+                            <button
+                                onClick={loadMore}
+                                className={`w-full p-3 font-bold border-t-2 border-black ${darkMode ? "hover:bg-gray-700" : "hover:bg-gray-100"}`}
+                            >
+                                Load more
+                            </button>
+                        )}
                     </div>
                 </div>
             )}
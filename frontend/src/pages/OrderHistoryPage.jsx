@@ -7,24 +7,52 @@ import { ArrowLeft } from "lucide-react";
 
 export default function OrderHistoryPage() {
     const [orders, setOrders] = useState([]);
+    const [page, setPage] = useState(0);
+    const [hasNext, setHasNext] = useState(false);
+    const [details, setDetails] = useState({}); // order id -> lines, loaded on demand
     const [loading, setLoading] = useState(true);
     const { darkMode } = useTheme();
     const navigate = useNavigate();
 
+    const fetchOrders = async (pageToLoad) => {
+        try {
+            const res = await api.get("/orders/history", {
+                params: { page: pageToLoad, size: 10 },
+            });
+            setOrders((current) =>
+                pageToLoad === 0
+                    ? res.data.content
+                    : [...current, ...res.data.content],
+            );
+            setPage(pageToLoad);
+            setHasNext(res.data.hasNext);
+        } catch (err) {
+            console.error("Failed to fetch orders");
+        } finally {
+            setLoading(false);
+        }
+    };
+
     useEffect(() => {
-        const fetchOrders = async () => {
-            try {
-                const res = await api.get("/orders/history");
-                setOrders(res.data);
-            } catch (err) {
-                console.error("Failed to fetch orders");
-            } finally {
-                setLoading(false);
-            }
-        };
-        fetchOrders();
+        fetchOrders(0);
     }, []);
 
+    const toggleDetails = async (orderId) => {
+        if (details[orderId]) {
+            setDetails(({ [orderId]: _, ...rest }) => rest);
+            return;
+        }
+        try {
+            const res = await api.get(`/orders/${orderId}`);
+            setDetails((current) => ({
+                ...current,
+                [orderId]: res.data.items,
+            }));
+        } catch (err) {
+            console.error("Failed to fetch order details");
+        }
+    };
+
     const getStatusColor = (status) => {
         switch (status) {
             case "COMPLETED":
@@ -86,14 +114,22 @@ export default function OrderHistoryPage() {
                                     </span>
                                 </div>
                             </div>
+                            <button
+                                onClick={() => toggleDetails(order.id)}
+                                className="text-sm font-bold underline mb-2"
+                            >
+                                {details[order.id] ? "Hide" : "Show"}{" "}
+                                {order.itemCount}{" "}
+                                {order.itemCount === 1 ? "item" : "items"}
+                            </button>
                             <div className="space-y-2">
-                                {order.items.map((item) => (
+                                {details[order.id]?.map((item) => (
                                     <div
                                         key={item.id}
                                         className="flex justify-between text-sm font-medium"
                                     >
                                         <span>
-                                            {item.quantity}x {item.product.name}
+                                            {item.quantity}x {item.name}
                                         </span>
                                         <span>
                                             ₹
@@ -107,6 +143,14 @@ export default function OrderHistoryPage() {
                             </div>
                         </div>
                     ))}
+                    {hasNext && (
+                        <button
+                            onClick={() => fetchOrders(page + 1)}
+                            className={`w-full p-3 font-bold rounded-lg border-4 border-black shadow-[4px_4px_0px_0px_rgba(0,0,0,1)] active:shadow-none ${darkMode ? "bg-gray-800 text-white" : "bg-white text-black"}`}
+                        >
+                            Load more orders
+                        </button>
+                    )}
                 </div>
             )}
         </div>